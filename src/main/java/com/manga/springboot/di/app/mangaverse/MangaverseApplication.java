@@ -2,8 +2,10 @@ package com.manga.springboot.di.app.mangaverse;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MangaverseApplication {
 
 	public static void main(String[] args) {
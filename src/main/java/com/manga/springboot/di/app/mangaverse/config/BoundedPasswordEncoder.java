@@ -0,0 +1,130 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// BCrypt fuera de los hilos de Tomcat: encode/matches se ejecutan en un pool pequeño con cola acotada.
+// Si la cola está llena se falla al momento (BusyException -> 503) en lugar de dejar a todos los
+// workers calculando hashes mientras las páginas, los estáticos y la API de favoritos esperan
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+    // Se crea al registrar las métricas; su máximo es por ventana de tiempo, no desde el arranque
+    private volatile Timer hashTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Solo compara el coste del hash guardado con el configurado; no hace falta pasar por el pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mangaverse.password.hashing.queue", this, BoundedPasswordEncoder::getQueueDepth)
+                .description("Hashes esperando en la cola")
+                .register(registry);
+        Gauge.builder("mangaverse.password.hashing.active", this, BoundedPasswordEncoder::getActiveCount)
+                .register(registry);
+        FunctionCounter.builder("mangaverse.password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Hashes rechazados con la cola llena (503)")
+                .register(registry);
+        hashTimer = Timer.builder("mangaverse.password.hashing")
+                .description("Tiempo de cálculo de cada hash en el pool")
+                .register(registry);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    Timer timer = hashTimer;
+                    if (timer != null) {
+                        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Es una AuthenticationException para que el login la trate en su manejador de errores (y responda 503)
+    public static class BusyException extends AuthenticationServiceException {
+        public BusyException() {
+            super("Demasiados inicios de sesión a la vez, inténtalo de nuevo en unos segundos");
+        }
+    }
+}
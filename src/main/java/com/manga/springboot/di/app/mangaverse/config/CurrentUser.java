@@ -0,0 +1,5 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+// Usuario autenticado resuelto desde la sesión (ver CurrentUserArgumentResolver)
+public record CurrentUser(Long id, String username, String email) {
+}
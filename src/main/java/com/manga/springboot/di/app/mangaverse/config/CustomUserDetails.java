@@ -0,0 +1,29 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Principal de sesión: además del email (username de Spring Security) guarda el id y el nombre de usuario,
+// así los controladores no necesitan consultar la tabla users en cada petición
+public class CustomUserDetails extends User {
+
+    private final Long id;
+    private final String displayName;
+
+    public CustomUserDetails(Long id, String displayName, String email, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
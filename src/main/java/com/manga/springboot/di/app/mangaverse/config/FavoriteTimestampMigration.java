@@ -0,0 +1,135 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.services.FavoriteShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Las fechas de favoritos y lápidas se guardan en UTC (Favorite.now()); antes eran la hora local del servidor.
+// Al arrancar, cada base de datos (la principal y cada shard) convierte una sola vez sus filas anteriores y lo
+// apunta en favorite_migrations. Igual que IdSequenceInitializer, termina antes de crear el EntityManagerFactory,
+// así el servidor web no acepta peticiones con fechas de las dos épocas mezcladas (la paginación por added_at
+// saltaría o repetiría favoritos en la frontera)
+@Component
+public class FavoriteTimestampMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteTimestampMigration.class);
+
+    static final String MIGRATION = "favorites-utc-timestamps";
+    private static final int PAGE_SIZE = 1000;
+
+    private final DataSource dataSource;
+    private final FavoriteShards favoriteShards;
+    private final ZoneId legacyZone;
+
+    // Zona en la que se escribieron las fechas antiguas; por defecto la de la JVM (la misma que usaba LocalDateTime.now())
+    public FavoriteTimestampMigration(DataSource dataSource, FavoriteShards favoriteShards,
+            @Value("${favorites.timestamps.legacy-zone:}") String legacyZone) {
+        this.dataSource = dataSource;
+        this.favoriteShards = favoriteShards;
+        this.legacyZone = legacyZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(legacyZone);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        // Sin shard fijado en el hilo, el DataSource de la aplicación es la base principal
+        migrate(dataSource, "principal");
+        for (int shard = 0; shard < favoriteShards.shardCount(); shard++) {
+            migrate(favoriteShards.dataSource(shard), "shard " + shard);
+        }
+    }
+
+    void migrate(DataSource target, String name) throws Exception {
+        boolean hasFavorites = tableExists(target, "favorites");
+        boolean hasTombstones = tableExists(target, "favorite_tombstones");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS favorite_migrations "
+                + "(name VARCHAR(100) NOT NULL PRIMARY KEY, applied_at DATETIME(6) NOT NULL)");
+
+        // La marca se inserta primero y en la misma transacción: otra instancia que arranque a la vez espera
+        // al bloqueo de la fila y, al ver la clave repetida, no vuelve a desplazar las fechas
+        Integer converted = new TransactionTemplate(new DataSourceTransactionManager(target)).execute(status -> {
+            try {
+                jdbcTemplate.update("INSERT INTO favorite_migrations (name, applied_at) VALUES (?, ?)",
+                        MIGRATION, LocalDateTime.now(ZoneOffset.UTC));
+            } catch (DuplicateKeyException e) {
+                return null;
+            }
+            // Servidor que ya estaba en UTC, o base nueva cuyas tablas aún no ha creado Hibernate: solo queda la marca
+            if (legacyZone.normalized().equals(ZoneOffset.UTC)) {
+                return 0;
+            }
+            int rows = hasFavorites ? convertFavorites(jdbcTemplate) : 0;
+            return rows + (hasTombstones ? convertTombstones(jdbcTemplate) : 0);
+        });
+        if (converted != null && converted > 0) {
+            log.info("Base {}: {} filas de favoritos pasadas de {} a UTC", name, converted, legacyZone);
+        }
+    }
+
+    private int convertFavorites(JdbcTemplate jdbcTemplate) {
+        int converted = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, added_at, updated_at FROM favorites WHERE id > ? ORDER BY id LIMIT " + PAGE_SIZE,
+                    (rs, i) -> new Object[] { toUtc(rs, 2), toUtc(rs, 3), rs.getLong(1) }, lastId);
+            if (rows.isEmpty()) {
+                return converted;
+            }
+            jdbcTemplate.batchUpdate("UPDATE favorites SET added_at = ?, updated_at = ? WHERE id = ?", rows);
+            converted += rows.size();
+            lastId = (Long) rows.get(rows.size() - 1)[2];
+        }
+    }
+
+    // Las lápidas se purgan tras favorites.sync.tombstone-retention, así que caben en una sola pasada
+    private int convertTombstones(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT user_id, content_id, content_type, deleted_at FROM favorite_tombstones",
+                (rs, i) -> new Object[] { toUtc(rs, 4), rs.getLong(1), rs.getString(2), rs.getString(3) });
+        jdbcTemplate.batchUpdate("UPDATE favorite_tombstones SET deleted_at = ? "
+                + "WHERE user_id = ? AND content_id = ? AND content_type = ?", rows);
+        return rows.size();
+    }
+
+    // Con las reglas de la zona de cada fecha, así las de verano e invierno se desplazan lo que les toca
+    private LocalDateTime toUtc(ResultSet rs, int column) throws SQLException {
+        LocalDateTime local = rs.getObject(column, LocalDateTime.class);
+        return local == null ? null : local.atZone(legacyZone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    private static boolean tableExists(DataSource target, String table) throws Exception {
+        return JdbcUtils.extractDatabaseMetaData(target, metaData -> {
+            try (ResultSet tables = metaData.getTables(metaData.getConnection().getCatalog(), null, table,
+                    new String[] { "TABLE" })) {
+                return tables.next();
+            }
+        });
+    }
+
+    // El EntityManagerFactory espera a este bean
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependency() {
+            super(FavoriteTimestampMigration.class);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Map;
+
+// MySQL no tiene secuencias: Hibernate las emula con tablas (users_seq, favorites_seq) que
+// empiezan en 1. En una base de datos que ya tenía ids AUTO_INCREMENT hay que adelantarlas
+// por encima del máximo existente antes de la primera inserción. Se hace antes de crear el
+// EntityManagerFactory (y por tanto antes de que el servidor web acepte peticiones): si la tabla
+// de secuencia aún no existe se crea aquí con el valor correcto y Hibernate ya no la toca
+@Component
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Tabla de secuencia -> tabla de datos (el margen cubre el bloque que reserva el optimizador pooled)
+    private static final Map<String, String> SEQUENCES = Map.of("users_seq", "users", "favorites_seq", "favorites");
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        alignSequences();
+    }
+
+    public void alignSequences() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return;
+        }
+
+        for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+            String sequence = entry.getKey();
+            String table = entry.getValue();
+            // Base de datos nueva: Hibernate crea las tablas y las secuencias empiezan en 1 sin conflicto
+            if (!tableExists(table)) {
+                continue;
+            }
+            long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class)
+                    + ALLOCATION_SIZE + 1;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + sequence + " (next_val BIGINT) ENGINE=InnoDB");
+            int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", next, next);
+            if (updated == 0 && jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequence, Long.class) == 0) {
+                updated = jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) VALUES (?)", next);
+            }
+            if (updated > 0) {
+                log.info("Secuencia {} adelantada por encima de los ids de {}", sequence, table);
+            }
+        }
+    }
+
+    private boolean tableExists(String table) throws Exception {
+        return JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> {
+            try (ResultSet tables = metaData.getTables(metaData.getConnection().getCatalog(), null, table,
+                    new String[] { "TABLE" })) {
+                return tables.next();
+            }
+        });
+    }
+
+    // El EntityManagerFactory espera a este bean
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependency() {
+            super(IdSequenceInitializer.class);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Las peticiones HTTP (http.server.requests, con la uri como etiqueta), las consultas de los repositorios
+// (spring.data.repository.invocations) y el pool de conexiones (hikaricp.*) los mide Actuator.
+// Aquí solo se activa @Timed para los servicios
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    // Si cambia el coste, los hashes antiguos se recalculan en el siguiente login (CustomUserDetailsService.updatePassword)
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.hashing-threads:2}") int threads,
+            @Value("${security.password.queue-capacity:32}") int queueCapacity) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity);
+    }
+}
@@ -0,0 +1,69 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Cuenta las sentencias SQL de cada petición (incluidas las de Spring Security, por eso va el primero).
+// Si una petición pasa del presupuesto o ejecuta alguna consulta lenta se deja un aviso con la uri,
+// el número de sentencias y el tiempo total en base de datos
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${db.query.budget:10}")
+    private int budget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStats.finish();
+            request.setAttribute(QueryStats.REQUEST_ATTRIBUTE, stats);
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        // El patrón de la ruta (/user/favorites/{id}) y no la uri real, para no crear una serie por cada id
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        if (stats.getStatements() > 0) {
+            DistributionSummary.builder("mangaverse.db.statements.per.request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+        }
+        boolean overBudget = stats.getStatements() > budget;
+        if (overBudget) {
+            meterRegistry.counter("mangaverse.db.budget.exceeded", "uri", uri).increment();
+        }
+        if (overBudget || stats.getSlowStatements() > 0) {
+            log.warn("Presupuesto de consultas: method={} uri={} statements={} budget={} slowStatements={} dbMs={}",
+                    request.getMethod(), uri, stats.getStatements(), budget, stats.getSlowStatements(), stats.getMillis());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Sustituye a spring.jpa.show-sql y al TRACE de BasicBinder: en lugar de escribir cada sentencia en el log,
+// el DataSource se envuelve en un proxy que las cronometra (mangaverse.db.statements), avisa de las lentas
+// y las suma a la petición en curso (QueryStats)
+@Configuration
+public class QueryMonitoringConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMonitoringConfig.class);
+    private static final String START = "mangaverse.start";
+
+    // static: los BeanPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    static TimingDataSourcePostProcessor dataSourceProxy(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${db.query.slow-threshold:200ms}") Duration slowThreshold) {
+        return new TimingDataSourcePostProcessor(meterRegistry, slowThreshold.toNanos());
+    }
+
+    // Con orden, para envolver el DataSource original antes que el enrutado a shards (ShardingConfig)
+    static class TimingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final long slowNanos;
+
+        TimingDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry, long slowNanos) {
+            this.meterRegistry = meterRegistry;
+            this.slowNanos = slowNanos;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // Los que solo reparten conexiones de otros (réplica, shards) no se envuelven: se medirían dos veces
+            if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                    && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new TimingListener(meterRegistry, slowNanos))
+                        .build();
+            }
+            return bean;
+        }
+    }
+
+    private static class TimingListener implements QueryExecutionListener {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final long slowNanos;
+        private Timer timer;
+
+        TimingListener(ObjectProvider<MeterRegistry> meterRegistry, long slowNanos) {
+            this.meterRegistry = meterRegistry;
+            this.slowNanos = slowNanos;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            execInfo.addCustomValue(START, System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            long elapsed = System.nanoTime() - execInfo.getCustomValue(START, Long.class);
+            boolean slow = elapsed >= slowNanos;
+
+            QueryStats stats = QueryStats.current();
+            if (stats != null) {
+                stats.record(elapsed, slow);
+            }
+            Timer statements = timer();
+            if (statements != null) {
+                statements.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            if (slow) {
+                String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+                log.warn("Consulta lenta: elapsedMs={} batchSize={} sql=\"{}\"",
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), execInfo.getBatchSize(),
+                        sql.length() > 500 ? sql.substring(0, 500) + "..." : sql);
+            }
+        }
+
+        // El registro de métricas aún no existe cuando se crea el DataSource (las consultas de arranque no se miden)
+        private Timer timer() {
+            if (timer == null) {
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    timer = Timer.builder("mangaverse.db.statements")
+                            .description("Sentencias SQL ejecutadas (consultas, actualizaciones y lotes)")
+                            .register(registry);
+                }
+            }
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import java.util.concurrent.TimeUnit;
+
+// Consultas SQL de la petición en curso. La abre QueryBudgetFilter y la alimenta el proxy del DataSource;
+// lo que se ejecuta fuera del hilo de la petición (tareas programadas, hilos virtuales) no se asigna a ninguna.
+// Al terminar queda en el atributo REQUEST_ATTRIBUTE, así las pruebas pueden comprobar el presupuesto de cada endpoint
+public class QueryStats {
+
+    public static final String REQUEST_ATTRIBUTE = QueryStats.class.getName();
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int slowStatements;
+    private long nanos;
+
+    static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void finish() {
+        CURRENT.remove();
+    }
+
+    // null fuera de una petición
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(long elapsedNanos, boolean slow) {
+        statements++;
+        nanos += elapsedNanos;
+        if (slow) {
+            slowStatements++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getSlowStatements() {
+        return slowStatements;
+    }
+
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
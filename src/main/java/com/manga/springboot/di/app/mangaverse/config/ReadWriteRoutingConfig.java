@@ -0,0 +1,60 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.services.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Solo si hay réplica (db.replica.url): spring.datasource.* pasa a ser la base principal y las transacciones
+// @Transactional(readOnly = true) leen de la réplica. LazyConnectionDataSourceProxy no pide la conexión real
+// hasta la primera sentencia, cuando ya sabe si la transacción es de solo lectura
+@Configuration
+@ConditionalOnProperty("db.replica.url")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("db.replica.hikari")
+    public DataSource replicaDataSource(DataSourceProperties properties,
+            @Value("${db.replica.url}") String url,
+            @Value("${db.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${db.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReadYourWritesTracker readYourWrites,
+            @Value("${db.replica.retry-after:30s}") Duration retryAfter) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, readYourWrites, retryAfter));
+        return proxy;
+    }
+}
@@ -0,0 +1,25 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+// Con favorites.shards.rebalance=true la aplicación solo mueve favoritos y se cierra (FavoriteShardRebalancer):
+// arranca sin servidor web, así nadie puede escribir mientras se copian los datos, y sin las tareas programadas
+public class RebalanceModeEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("favorites.shards.rebalance", Boolean.class, false)) {
+            return;
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("favoritesShardRebalance", Map.of(
+                "spring.main.web-application-type", "none",
+                "catalog.ingest.enabled", "false",
+                "dashboard.snapshot.enabled", "false",
+                "recommendations.enabled", "false")));
+    }
+}
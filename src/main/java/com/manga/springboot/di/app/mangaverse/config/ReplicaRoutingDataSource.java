@@ -0,0 +1,91 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.services.ReadYourWritesTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+// Destino de las transacciones de solo lectura: la réplica, salvo que el usuario de la petición acabe de escribir
+// (ReadYourWritesTracker) o la réplica haya fallado hace poco. Si no da conexión se marca como caída durante
+// retryAfter y la lectura se hace en la principal
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesTracker readYourWrites;
+    private final long retryAfterNanos;
+
+    private volatile long downUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWrites,
+            Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWrites = readYourWrites;
+        this.retryAfterNanos = retryAfter.toNanos();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReplicaHealthy() || readYourWrites.wroteRecently(currentUserId())) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Target.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() == Target.REPLICA) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    public boolean isReplicaHealthy() {
+        return System.nanoTime() - downUntil >= 0;
+    }
+
+    private void markReplicaDown(SQLException e) {
+        downUntil = System.nanoTime() + retryAfterNanos;
+        log.warn("Réplica no disponible, las lecturas van a la base principal durante {} s: {}",
+                retryAfterNanos / 1_000_000_000, e.getMessage());
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details
+                ? details.getId()
+                : null;
+    }
+}
@@ -1,32 +1,67 @@
 package com.manga.springboot.di.app.mangaverse.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import jakarta.servlet.http.HttpServletResponse;
 
+// Solo con servidor web: el rebalanceo de shards arranca sin él (RebalanceModeEnvironmentPostProcessor)
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    // Con el pool de hashes saturado se responde 503 en lugar de "contraseña incorrecta"
+    private AuthenticationFailureHandler loginFailureHandler() {
+        SimpleUrlAuthenticationFailureHandler invalidCredentials = new SimpleUrlAuthenticationFailureHandler("/auth/login?error=true");
+        return (request, response, exception) -> {
+            if (exception instanceof BoundedPasswordEncoder.BusyException
+                    || exception.getCause() instanceof BoundedPasswordEncoder.BusyException) {
+                response.setHeader("Retry-After", "2");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, exception.getMessage());
+                return;
+            }
+            invalidCredentials.onAuthenticationFailure(request, response, exception);
+        };
+    }
+
+    // Actuator: health es público; el resto (prometheus) solo para cuentas ADMIN con HTTP Basic,
+    // que es lo que sabe enviar el scraper. Sin sesión ni redirección al formulario de login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(basic -> { })
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .userDetailsService(userDetailsService)
+            .csrf(csrf -> csrf.disable());
+
+        return http.build();
     }
 
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/auth/register", "/auth/login", "/styles/**", "/js/**", "/img/**","/")
+                .requestMatchers("/auth/register", "/auth/login", "/styles/**", "/js/**", "/img/**","/", "/api/catalog/**", "/api/search", "/api/images", "/api/details/**", "/api/recommendations/**", "/api/dashboard", "/api/users/availability", "/error")
                 .permitAll()
                 .requestMatchers("/user/**").authenticated() 
                 .anyRequest().authenticated()
@@ -36,7 +71,7 @@ public class SecurityConfig {
                 .loginProcessingUrl("/auth/login")
                 .usernameParameter("email") 
                 .defaultSuccessUrl("/user/dashboard?loginSuccess=true", true)
-                .failureUrl("/auth/login?error=true")
+                .failureHandler(loginFailureHandler())
                 .permitAll()
             )
             .logout(logout -> logout
@@ -0,0 +1,28 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.services.FavoriteShards;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Conexiones del shard fijado en el hilo (FavoriteShards.forUser); sin shard, la base principal
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(DataSource main, FavoriteShards shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            targets.put(shard, shards.dataSource(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(main);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return FavoriteShards.currentShard();
+    }
+}
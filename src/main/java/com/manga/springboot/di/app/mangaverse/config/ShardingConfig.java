@@ -0,0 +1,139 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.services.FavoriteShards;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Shards de favoritos (favorites.shards.urls, separadas por comas): favorites y favorite_counters de cada usuario
+// viven en uno solo, elegido por su id; users y el resto de tablas siguen en spring.datasource.
+// El DataSource de la aplicación pasa a repartir conexiones según el shard fijado en el hilo, y como la conexión
+// real se pide en la primera sentencia (LazyConnectionDataSourceProxy) basta con fijarlo dentro de la transacción
+@Configuration
+public class ShardingConfig {
+
+    // Cada shard numera sus favoritos desde un rango propio: los ids no se repiten aunque Hibernate reparta
+    // bloques de la secuencia entre shards ni cuando el rebalanceo mueve filas de uno a otro
+    static final long ID_RANGE = 1L << 40;
+
+    @Bean
+    public FavoriteShards favoriteShards(DataSourceProperties properties, Environment environment)
+            throws MetaDataAccessException {
+        // Admite la lista separada por comas o indexada (favorites.shards.urls[0]=...), para URLs que llevan comas
+        List<String> urls = Binder.get(environment)
+                .bind("favorites.shards.urls", Bindable.listOf(String.class))
+                .orElse(List.of());
+        List<DataSource> dataSources = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(withMainParameters(url.trim(), properties.getUrl()))
+                    .build();
+            dataSource.setPoolName("favorites-shard-" + dataSources.size());
+            initialize(dataSource, dataSources.size());
+            dataSources.add(dataSource);
+        }
+        return new FavoriteShards(dataSources);
+    }
+
+    @Bean
+    static BeanPostProcessor shardRoutingDataSource(ObjectProvider<FavoriteShards> favoriteShards) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource main)) {
+                    return bean;
+                }
+                FavoriteShards shards = favoriteShards.getObject();
+                return shards.isEnabled()
+                        ? new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(main, shards))
+                        : bean;
+            }
+        };
+    }
+
+    // Los shards heredan los parámetros de spring.datasource.url que no fijen ellos (serverTimezone=UTC,
+    // rewriteBatchedStatements, useCursorFetch...): sin ellos las fechas, las altas en lote y la exportación
+    // por tandas se comportarían distinto según el shard
+    static String withMainParameters(String shardUrl, String mainUrl) {
+        int mainQuery = mainUrl == null ? -1 : mainUrl.indexOf('?');
+        if (mainQuery < 0) {
+            return shardUrl;
+        }
+        int shardQuery = shardUrl.indexOf('?');
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (shardQuery >= 0) {
+            parameters.putAll(parameters(shardUrl.substring(shardQuery + 1)));
+        }
+        List<String> own = parameters.keySet().stream().map(k -> k.toLowerCase(Locale.ROOT)).toList();
+        parameters(mainUrl.substring(mainQuery + 1))
+                .forEach((key, value) -> {
+                    if (!own.contains(key.toLowerCase(Locale.ROOT))) {
+                        parameters.put(key, value);
+                    }
+                });
+
+        StringBuilder merged = new StringBuilder(shardQuery >= 0 ? shardUrl.substring(0, shardQuery) : shardUrl);
+        String separator = "?";
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            merged.append(separator).append(parameter.getKey());
+            if (parameter.getValue() != null) {
+                merged.append('=').append(parameter.getValue());
+            }
+            separator = "&";
+        }
+        return merged.toString();
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            parameters.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? null : pair.substring(eq + 1));
+        }
+        return parameters;
+    }
+
+    private static void initialize(DataSource dataSource, int shard) throws MetaDataAccessException {
+        new ResourceDatabasePopulator(new ClassPathResource("db/favorites-shard-schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long start = (shard + 1) * ID_RANGE;
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        // En MySQL Hibernate emula la secuencia con una tabla (ver IdSequenceInitializer); H2 tiene secuencias
+        if ("MySQL".equalsIgnoreCase(product)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS favorites_seq (next_val BIGINT)");
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM favorites_seq", Integer.class);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO favorites_seq (next_val) VALUES (?)", start);
+            }
+        } else {
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS favorites_seq START WITH " + start + " INCREMENT BY 50");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.manga.springboot.di.app.mangaverse.controllers;
 
+import com.manga.springboot.di.app.mangaverse.config.BoundedPasswordEncoder;
 import com.manga.springboot.di.app.mangaverse.dto.request.LoginRequestDTO;
 import com.manga.springboot.di.app.mangaverse.dto.request.UserRegistrationDTO;
 import com.manga.springboot.di.app.mangaverse.models.User;
 import com.manga.springboot.di.app.mangaverse.services.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -30,7 +32,7 @@ public class AuthController {
 
     @PostMapping("/register")
     public String registerUser(@Valid @ModelAttribute("user") UserRegistrationDTO registrationDTO,
-            BindingResult result, Model model) {
+            BindingResult result, Model model, HttpServletResponse response) {
 
         if (result.hasErrors()) {
             return "auth/register";
@@ -40,6 +42,11 @@ public class AuthController {
             User user = userService.registerUser(registrationDTO);
             model.addAttribute("message", "¡Registro exitoso! Bienvenido " + user.getUsername());
             return "auth/login";
+        } catch (BoundedPasswordEncoder.BusyException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "2");
+            model.addAttribute("error", e.getMessage());
+            return "auth/register";
         } catch (RuntimeException e) {
             model.addAttribute("error", e.getMessage());
             return "auth/register";
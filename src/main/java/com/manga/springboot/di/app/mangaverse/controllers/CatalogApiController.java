@@ -0,0 +1,54 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.JikanClient;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Pasarela hacia Jikan: /api/catalog/top/anime?limit=10 -> https://api.jikan.moe/v4/top/anime?limit=10
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogApiController {
+
+    private static final String PREFIX = "/api/catalog";
+    private static final List<String> ALLOWED_PATHS = List.of("/top/", "/anime", "/manga", "/seasons/", "/genres/");
+
+    @Autowired
+    private JikanClient jikanClient;
+
+    @GetMapping("/**")
+    public ResponseEntity<String> proxy(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + PREFIX.length());
+
+        if (ALLOWED_PATHS.stream().noneMatch(path::startsWith)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String query = request.getQueryString();
+        String pathAndQuery = query != null ? path + "?" + query : path;
+
+        try {
+            String body = jikanClient.get(pathAndQuery);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                    .body(body);
+        } catch (RestClientResponseException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(e.getResponseBodyAsString());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.DashboardSnapshotService;
+import com.manga.springboot.di.app.mangaverse.services.DashboardSnapshotService.Snapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+// Secciones precalculadas del dashboard: /api/dashboard
+// Devuelve los bytes tal cual se generaron (comprimidos si el navegador acepta gzip)
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardApiController {
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @GetMapping
+    public ResponseEntity<byte[]> dashboard(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        Snapshot snapshot = dashboardSnapshotService.getSnapshot();
+        // Aún no se ha construido: el front pide las secciones a Jikan como antes
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+        CacheControl cacheControl = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+}
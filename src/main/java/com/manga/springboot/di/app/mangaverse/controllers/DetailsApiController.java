@@ -0,0 +1,53 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.MediaDetailsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Ficha completa: /api/details/anime/1 -> /full, /statistics, /reviews, /relations y /recommendations juntos
+@RestController
+@RequestMapping("/api/details")
+public class DetailsApiController {
+
+    @Autowired
+    private MediaDetailsService mediaDetailsService;
+
+    @GetMapping("/{kind}/{id}")
+    public ResponseEntity<Map<String, Object>> details(@PathVariable String kind, @PathVariable long id) {
+        if (!MediaDetailsService.KINDS.contains(kind)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            Map<String, Object> details = mediaDetailsService.getDetails(kind, id);
+            // Una ficha incompleta no se guarda en el navegador tanto tiempo: la próxima vez puede venir entera
+            boolean partial = !((List<?>) details.get("missing")).isEmpty();
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(partial ? 5 : 60, TimeUnit.SECONDS))
+                    .body(details);
+        } catch (RestClientResponseException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(error("Jikan respondió " + e.getStatusCode().value()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(error("No se pudo obtener la ficha"));
+        }
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return response;
+    }
+}
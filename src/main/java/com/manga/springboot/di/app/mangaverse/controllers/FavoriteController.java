@@ -1,57 +1,157 @@
 package com.manga.springboot.di.app.mangaverse.controllers;
 
+import com.manga.springboot.di.app.mangaverse.config.CurrentUser;
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteSyncDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteImportResultDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoritePageDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteSyncResultDTO;
 import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.services.CoOccurrenceRecommender;
+import com.manga.springboot.di.app.mangaverse.services.FavoriteCache;
+import com.manga.springboot.di.app.mangaverse.services.FavoriteEventBroadcaster;
 import com.manga.springboot.di.app.mangaverse.services.FavoriteService;
+import com.manga.springboot.di.app.mangaverse.services.FavoriteTransferService;
 import com.manga.springboot.di.app.mangaverse.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Controller
 @RequestMapping("/user/favorites")
 public class FavoriteController {
 
+    private static final int PAGE_SIZE = 24;
+    // Tarjetas que se pueden comprobar en una sola petición de check-batch
+    static final int MAX_CHECK_ITEMS = 200;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private FavoriteService favoriteService;
 
     @Autowired
     private UserService userService;
 
-    @GetMapping
-    public String favoritesPage(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        System.out.println("Email autenticado: " + email);
+    @Autowired
+    private FavoriteEventBroadcaster favoriteEventBroadcaster;
+
+    @Autowired
+    private FavoriteTransferService favoriteTransferService;
 
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    @Autowired
+    private CoOccurrenceRecommender recommender;
 
-        System.out.println("Usuario: " + user.getUsername());
-        System.out.println("Favoritos: " + favoriteService.getUserFavorites(user).size());
+    @GetMapping
+    public String favoritesPage(Model model, CurrentUser currentUser) {
+        User user = userService.getReference(currentUser.id());
+        FavoritePageDTO page = favoriteService.getFavoritesPage(user, null, PAGE_SIZE);
 
-        model.addAttribute("favorites", favoriteService.getUserFavorites(user));
+        model.addAttribute("favorites", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
         model.addAttribute("totalFavorites", favoriteService.countUserFavorites(user));
-        model.addAttribute("username", user.getUsername());
+        model.addAttribute("username", currentUser.username());
 
         return "favorites";
     }
 
+    // API para cargar más favoritos (scroll infinito)
+    @GetMapping("/page")
+    @ResponseBody
+    public Map<String, Object> favoritesNextPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "24") int size,
+            CurrentUser currentUser) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            User user = userService.getReference(currentUser.id());
+            FavoritePageDTO page = favoriteService.getFavoritesPage(user, cursor, Math.min(Math.max(size, 1), 100));
+
+            response.put("success", true);
+            response.put("items", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error al cargar favoritos: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    // Stream SSE con las altas y bajas de favoritos del usuario, para las pestañas que tengan la lista abierta
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter favoriteEvents(CurrentUser currentUser) {
+        return favoriteEventBroadcaster.subscribe(currentUser.id());
+    }
+
+    // Recomendaciones para el usuario a partir de lo que guardan quienes tienen sus mismos favoritos
+    @GetMapping("/recommendations")
+    @ResponseBody
+    public Map<String, Object> recommendations(@RequestParam(defaultValue = "20") int limit, CurrentUser currentUser) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (!recommender.isReady()) {
+            response.put("success", false);
+            response.put("message", "Las recomendaciones aún no están disponibles");
+            return response;
+        }
+
+        response.put("success", true);
+        response.put("items", recommender.feed(currentUser.id(), Math.min(Math.max(limit, 1), 100)));
+        return response;
+    }
+
+    // API para filtrar y ordenar favoritos en el servidor
+    @GetMapping("/search")
+    @ResponseBody
+    public Map<String, Object> searchFavorites(@ModelAttribute FavoriteFilterDTO filter, CurrentUser currentUser) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            User user = userService.getReference(currentUser.id());
+
+            response.put("success", true);
+            response.put("items", favoriteService.searchFavorites(user, filter));
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error al filtrar favoritos: " + e.getMessage());
+        }
+
+        return response;
+    }
+
     // API para agregar/quitar favorito
     @PostMapping("/toggle")
     @ResponseBody
     public Map<String, Object> toggleFavorite(@RequestBody Map<String, Object> request,
-            Authentication authentication) {
+            CurrentUser currentUser) {
 
         Map<String, Object> response = new HashMap<>();
 
         try {
-            String email = authentication.getName();
-            User user = userService.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            User user = userService.getReference(currentUser.id());
 
             String contentId = (String) request.get("contentId");
             String contentType = (String) request.get("contentType");
@@ -60,9 +160,8 @@ public class FavoriteController {
             Double score = request.get("score") != null ? Double.parseDouble(request.get("score").toString()) : 0.0;
             Integer year = request.get("year") != null ? Integer.parseInt(request.get("year").toString()) : 0;
 
-            favoriteService.toggleFavorite(user, contentId, contentType, title, imageUrl, score, year);
-
-            boolean isNowFavorite = favoriteService.isFavorite(user, contentId, contentType);
+            boolean isNowFavorite = favoriteService.toggleFavorite(user, contentId, contentType, title, imageUrl, score, year);
+            meterRegistry.counter("mangaverse.favorites.toggles", "action", isNowFavorite ? "added" : "removed").increment();
 
             response.put("success", true);
             response.put("isFavorite", isNowFavorite);
@@ -76,19 +175,101 @@ public class FavoriteController {
         return response;
     }
 
+    // API para sincronizar los favoritos guardados sin conexión: operaciones pendientes + token de la última vez
+    @PostMapping("/sync")
+    @ResponseBody
+    public Map<String, Object> syncFavorites(@RequestBody FavoriteSyncDTO request, CurrentUser currentUser) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            User user = userService.getReference(currentUser.id());
+            FavoriteSyncResultDTO result = favoriteService.sync(user, request.getSince(), request.getOperations());
+
+            response.put("success", true);
+            response.put("token", result.getToken());
+            response.put("reset", result.isReset());
+            response.put("applied", result.getApplied());
+            response.put("changes", result.getChanges());
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error al sincronizar favoritos: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    // Descarga de toda la lista en CSV o JSON; se escribe según se lee de la base de datos
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFavorites(@RequestParam(defaultValue = "csv") String format,
+            CurrentUser currentUser) {
+
+        if (!FavoriteTransferService.FORMATS.contains(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = currentUser.id();
+        return ResponseEntity.ok()
+                .contentType("json".equals(format)
+                        ? MediaType.APPLICATION_JSON
+                        : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("favoritos." + format).build().toString())
+                .body(out -> favoriteTransferService.export(userId, format, out));
+    }
+
+    // Subida de una lista exportada (CSV o JSON). Las filas repetidas o no válidas se cuentan y se saltan
+    @PostMapping("/import")
+    @ResponseBody
+    public Map<String, Object> importFavorites(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            CurrentUser currentUser) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            User user = userService.getReference(currentUser.id());
+            FavoriteImportResultDTO result;
+            try (InputStream in = file.getInputStream()) {
+                result = favoriteTransferService.importFavorites(user, importFormat(file, format), in);
+            }
+
+            response.put("success", true);
+            response.put("imported", result.getImported());
+            response.put("duplicates", result.getDuplicates());
+            response.put("invalid", result.getInvalid());
+            response.put("errors", result.getErrors());
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error al importar favoritos: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    // Sin formato explícito se deduce de la extensión del fichero
+    private static String importFormat(MultipartFile file, String format) {
+        if (format != null && !format.isBlank()) {
+            if (!FavoriteTransferService.FORMATS.contains(format)) {
+                throw new IllegalArgumentException("Formato no válido: " + format);
+            }
+            return format;
+        }
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        return name.endsWith(".json") ? "json" : "csv";
+    }
+
     // API para eliminar favorito
     @DeleteMapping("/remove")
     @ResponseBody
     public Map<String, Object> removeFavorite(@RequestParam String contentId,
             @RequestParam String contentType,
-            Authentication authentication) {
+            CurrentUser currentUser) {
 
         Map<String, Object> response = new HashMap<>();
 
         try {
-            String email = authentication.getName();
-            User user = userService.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            User user = userService.getReference(currentUser.id());
 
             favoriteService.removeFavorite(user, contentId, contentType);
             response.put("success", true);
@@ -107,21 +288,19 @@ public class FavoriteController {
     public Map<String, Object> checkFavorite(
             @RequestParam String contentId,
             @RequestParam String contentType,
-            Authentication authentication) {
+            CurrentUser currentUser) {
 
         Map<String, Object> response = new HashMap<>();
 
         try {
-            if (authentication == null || !authentication.isAuthenticated()) {
+            if (currentUser == null) {
                 response.put("success", false);
                 response.put("isFavorite", false);
                 response.put("message", "Usuario no autenticado");
                 return response;
             }
 
-            String email = authentication.getName();
-            User user = userService.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            User user = userService.getReference(currentUser.id());
 
             boolean isFavorite = favoriteService.isFavorite(user, contentId, contentType);
 
@@ -136,4 +315,46 @@ public class FavoriteController {
 
         return response;
     }
+
+    // API para verificar muchos favoritos a la vez (una petición por cuadrícula)
+    @PostMapping("/check-batch")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> checkFavorites(@RequestBody Map<String, List<Map<String, Object>>> request,
+            CurrentUser currentUser) {
+
+        Map<String, Object> response = new HashMap<>();
+        List<Map<String, Object>> items = request.getOrDefault("items", List.of());
+        if (items.size() > MAX_CHECK_ITEMS) {
+            response.put("success", false);
+            response.put("favorites", Map.of());
+            response.put("message", "Demasiados elementos (máximo " + MAX_CHECK_ITEMS + ")");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            if (currentUser == null) {
+                response.put("success", false);
+                response.put("favorites", Map.of());
+                response.put("message", "Usuario no autenticado");
+                return ResponseEntity.ok(response);
+            }
+
+            User user = userService.getReference(currentUser.id());
+
+            List<String> keys = new ArrayList<>();
+            for (Map<String, Object> item : items) {
+                keys.add(FavoriteCache.key(String.valueOf(item.get("contentType")), String.valueOf(item.get("contentId"))));
+            }
+
+            response.put("success", true);
+            response.put("favorites", favoriteService.checkFavorites(user, keys));
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("favorites", Map.of());
+            response.put("message", "Error del servidor: " + e.getMessage());
+        }
+
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.ImageCacheService;
+import com.manga.springboot.di.app.mangaverse.services.ImageCacheService.CachedImage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+// Portadas servidas desde la caché en disco: /api/images?url=https://cdn.myanimelist.net/...&size=small
+// Si la imagen no se puede obtener se redirige al placeholder de /img
+@RestController
+@RequestMapping("/api/images")
+public class ImageProxyController {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProxyController.class);
+
+    // Atributos con los que Tomcat envía el fichero con sendfile, sin pasar los bytes por la JVM
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // El contenido de cada ETag no cambia nunca (va por hash), así que el navegador puede guardarlo un año
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+    @Autowired
+    private ImageCacheService imageCacheService;
+
+    @GetMapping
+    public void image(@RequestParam String url,
+            @RequestParam(defaultValue = "medium") String size,
+            @RequestParam(defaultValue = "anime") String type,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        CachedImage image;
+        try {
+            image = imageCacheService.getImage(url, size);
+        } catch (Exception e) {
+            log.debug("Portada no disponible ({}): {}", url, e.getMessage());
+            String placeholder = "manga".equals(type) ? "manga" : "anime";
+            response.sendRedirect(request.getContextPath() + "/img/placeholder-" + placeholder + ".jpg");
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, image.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(image.etag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(image.contentType());
+        response.setContentLengthLong(image.length());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, image.length());
+            return;
+        }
+
+        // Sin sendfile (otro contenedor o pruebas): transferTo desde el canal del fichero
+        try (FileChannel file = FileChannel.open(image.file(), StandardOpenOption.READ);
+             WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = 0;
+            while (position < image.length()) {
+                position += file.transferTo(position, image.length() - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.CatalogFilterDTO;
+import com.manga.springboot.di.app.mangaverse.services.CatalogIngestionService;
+import com.manga.springboot.di.app.mangaverse.services.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Filtros del catálogo servidos desde la copia local. Admite los mismos parámetros que Jikan
+// (genres, type, status, order_by, sort, page, limit); si la ingesta aún no ha completado una pasada responde 503
+// y el front recurre a la pasarela /api/catalog
+@RestController
+@RequestMapping("/api/catalog/local")
+public class LocalCatalogController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @GetMapping("/{kind}")
+    public ResponseEntity<Map<String, Object>> search(@PathVariable String kind,
+            @RequestParam(required = false) String genres,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(name = "order_by", defaultValue = "popularity") String orderBy,
+            @RequestParam(defaultValue = "desc") String sort,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        ResponseEntity<Map<String, Object>> unavailable = checkAvailable(kind);
+        if (unavailable != null) {
+            return unavailable;
+        }
+
+        CatalogFilterDTO filter = filter(kind, genres, type, status);
+        filter.setOrderBy(orderBy);
+        filter.setSort(sort);
+        filter.setPage(page);
+        filter.setLimit(limit);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                .body(catalogService.search(filter));
+    }
+
+    @GetMapping("/{kind}/genres")
+    public ResponseEntity<Map<String, Object>> genreFacets(@PathVariable String kind,
+            @RequestParam(required = false) String genres,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status) {
+
+        ResponseEntity<Map<String, Object>> unavailable = checkAvailable(kind);
+        if (unavailable != null) {
+            return unavailable;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", catalogService.getGenreFacets(filter(kind, genres, type, status)));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                .body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> checkAvailable(String kind) {
+        if (!CatalogIngestionService.KINDS.contains(kind)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!catalogService.isAvailable(kind)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "El catálogo local aún no está disponible");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return null;
+    }
+
+    private static CatalogFilterDTO filter(String kind, String genres, String type, String status) {
+        CatalogFilterDTO filter = new CatalogFilterDTO();
+        filter.setKind(kind);
+        filter.setType(type);
+        filter.setStatus(status);
+
+        List<Integer> genreIds = new ArrayList<>();
+        if (genres != null) {
+            for (String id : genres.split(",")) {
+                if (id.isBlank()) {
+                    continue;
+                }
+                try {
+                    genreIds.add(Integer.valueOf(id.trim()));
+                } catch (NumberFormatException e) {
+                    // Igual que Jikan: los ids no numéricos se ignoran
+                }
+            }
+        }
+        filter.setGenres(genreIds);
+        return filter;
+    }
+}
@@ -0,0 +1,50 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.CoOccurrenceRecommender;
+import com.manga.springboot.di.app.mangaverse.services.MediaDetailsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// "Quien guardó esto también guardó...": /api/recommendations/anime/1?limit=12, calculado con los favoritos
+// de los usuarios de la aplicación (las de Jikan siguen en /api/details)
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationApiController {
+
+    @Autowired
+    private CoOccurrenceRecommender recommender;
+
+    @GetMapping("/{kind}/{id}")
+    public ResponseEntity<Map<String, Object>> alsoFavorited(@PathVariable String kind, @PathVariable String id,
+            @RequestParam(defaultValue = "12") int limit) {
+
+        if (!MediaDetailsService.KINDS.contains(kind)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (!recommender.isReady()) {
+            response.put("success", false);
+            response.put("message", "Las recomendaciones aún no están disponibles");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
+        response.put("success", true);
+        response.put("data", recommender.alsoFavorited(kind, id, Math.min(Math.max(limit, 1), 50)));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(300, TimeUnit.SECONDS))
+                .body(response);
+    }
+}
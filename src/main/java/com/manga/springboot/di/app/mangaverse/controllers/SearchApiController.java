@@ -0,0 +1,44 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.TitleSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Autocompletado de títulos: /api/search?q=narut&kind=anime&limit=10
+@RestController
+@RequestMapping("/api/search")
+public class SearchApiController {
+
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(@RequestParam String q,
+            @RequestParam(required = false) String kind,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        // Sin catálogo local todavía: el front vuelve a preguntar a Jikan
+        if (!titleSearchService.isReady(kind)) {
+            response.put("success", false);
+            response.put("message", "El índice de búsqueda aún no está disponible");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
+        response.put("data", titleSearchService.search(q, kind, limit));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                .body(response);
+    }
+}
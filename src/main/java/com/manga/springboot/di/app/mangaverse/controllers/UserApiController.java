@@ -0,0 +1,51 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Disponibilidad de nombre de usuario/email mientras se rellena el registro:
+// /api/users/availability?username=lector -> {"success": true, "username": true}
+@RestController
+@RequestMapping("/api/users")
+public class UserApiController {
+
+    private static final int MAX_LENGTH = 100;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+
+        Map<String, Object> response = new HashMap<>();
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            response.put("success", false);
+            response.put("message", "Indica un nombre de usuario o un email");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if ((username != null && username.length() > MAX_LENGTH) || (email != null && email.length() > MAX_LENGTH)) {
+            response.put("success", false);
+            response.put("message", "Valor demasiado largo");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("success", true);
+        if (username != null && !username.isBlank()) {
+            response.put("username", !userService.usernameExists(username.trim()));
+        }
+        if (email != null && !email.isBlank()) {
+            response.put("email", !userService.emailExists(email.trim()));
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,83 @@
+package com.manga.springboot.di.app.mangaverse.dto.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogFilterDTO {
+
+    private String kind;
+    private List<Integer> genres = new ArrayList<>();
+    private String type;
+    private String status;
+
+    // "popularity" (por defecto), "score", "year" o "title"
+    private String orderBy = "popularity";
+    private String sort = "desc";
+    private int page = 1;
+    private int limit = 20;
+
+    // Getters and Setters
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public List<Integer> getGenres() {
+        return genres;
+    }
+
+    public void setGenres(List<Integer> genres) {
+        this.genres = genres;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public void setOrderBy(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,80 @@
+package com.manga.springboot.di.app.mangaverse.dto.request;
+
+public class FavoriteFilterDTO {
+
+    private String contentType;
+    private Double minScore;
+    private Double maxScore;
+    private Integer minYear;
+    private Integer maxYear;
+
+    // "addedAt" (por defecto), "score" o "year"
+    private String sort = "addedAt";
+    private String direction = "desc";
+    private int limit = 50;
+
+    // Getters and Setters
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Double getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(Double minScore) {
+        this.minScore = minScore;
+    }
+
+    public Double getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(Double maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public Integer getMinYear() {
+        return minYear;
+    }
+
+    public void setMinYear(Integer minYear) {
+        this.minYear = minYear;
+    }
+
+    public Integer getMaxYear() {
+        return maxYear;
+    }
+
+    public void setMaxYear(Integer maxYear) {
+        this.maxYear = maxYear;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,73 @@
+package com.manga.springboot.di.app.mangaverse.dto.request;
+
+public class FavoriteImportDTO {
+
+    private String contentId;
+    private String contentType;
+    private String title;
+    private String imageUrl;
+    private Double score;
+    private Integer year;
+
+    public FavoriteImportDTO() {
+    }
+
+    public FavoriteImportDTO(String contentId, String contentType, String title,
+            String imageUrl, Double score, Integer year) {
+        this.contentId = contentId;
+        this.contentType = contentType;
+        this.title = title;
+        this.imageUrl = imageUrl;
+        this.score = score;
+        this.year = year;
+    }
+
+    // Getters and Setters
+    public String getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(String contentId) {
+        this.contentId = contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+}
@@ -0,0 +1,27 @@
+package com.manga.springboot.di.app.mangaverse.dto.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Petición de sincronización: el token de la última vez (null la primera) y las operaciones pendientes
+public class FavoriteSyncDTO {
+
+    private String since;
+    private List<FavoriteSyncOperationDTO> operations = new ArrayList<>();
+
+    public String getSince() {
+        return since;
+    }
+
+    public void setSince(String since) {
+        this.since = since;
+    }
+
+    public List<FavoriteSyncOperationDTO> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<FavoriteSyncOperationDTO> operations) {
+        this.operations = operations != null ? operations : new ArrayList<>();
+    }
+}
@@ -0,0 +1,38 @@
+package com.manga.springboot.di.app.mangaverse.dto.request;
+
+import java.time.Instant;
+
+// Operación hecha sin conexión: action es "add" o "remove" y timestamp la hora del cliente al hacerla
+public class FavoriteSyncOperationDTO extends FavoriteImportDTO {
+
+    public static final String ADD = "add";
+    public static final String REMOVE = "remove";
+
+    private String action;
+    private Instant timestamp;
+
+    public FavoriteSyncOperationDTO() {
+    }
+
+    public FavoriteSyncOperationDTO(String action, String contentId, String contentType, Instant timestamp) {
+        super(contentId, contentType, null, null, null, null);
+        this.action = action;
+        this.timestamp = timestamp;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,27 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+// Un género y cuántos elementos del catálogo local lo tienen con los filtros actuales
+public class CatalogFacetDTO {
+
+    private final Integer genreId;
+    private final String name;
+    private final Long count;
+
+    public CatalogFacetDTO(Integer genreId, String name, Long count) {
+        this.genreId = genreId;
+        this.name = name;
+        this.count = count;
+    }
+
+    public Integer getGenreId() {
+        return genreId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,82 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+// Lo que el buscador guarda de cada título del catálogo local: lo justo para pintar una sugerencia
+public class CatalogTitleDTO {
+
+    private final String kind;
+    private final Long malId;
+    private final String title;
+    private final String titleEnglish;
+    private final String alternativeTitles;
+    private final String type;
+    private final String status;
+    private final Double score;
+    private final Integer year;
+    private final Long members;
+    private final String imageUrl;
+
+    public CatalogTitleDTO(String kind, Long malId, String title, String type, String status,
+            Double score, Integer year, Long members, String imageUrl) {
+        this(kind, malId, title, null, null, type, status, score, year, members, imageUrl);
+    }
+
+    public CatalogTitleDTO(String kind, Long malId, String title, String titleEnglish, String alternativeTitles,
+            String type, String status, Double score, Integer year, Long members, String imageUrl) {
+        this.kind = kind;
+        this.malId = malId;
+        this.title = title;
+        this.titleEnglish = titleEnglish;
+        this.alternativeTitles = alternativeTitles;
+        this.type = type;
+        this.status = status;
+        this.score = score;
+        this.year = year;
+        this.members = members;
+        this.imageUrl = imageUrl;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getMalId() {
+        return malId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getTitleEnglish() {
+        return titleEnglish;
+    }
+
+    // Uno por línea, como se guardan en catalog_items
+    public String getAlternativeTitles() {
+        return alternativeTitles;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public Long getMembers() {
+        return members;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
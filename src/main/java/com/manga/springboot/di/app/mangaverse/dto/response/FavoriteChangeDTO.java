@@ -0,0 +1,82 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+// Cambio de un favorito para la sincronización: un alta (con los datos de la tarjeta) o una baja (lápida)
+public class FavoriteChangeDTO {
+
+    public static final String ADDED = "added";
+    public static final String REMOVED = "removed";
+
+    private final String action;
+    private final String contentId;
+    private final String contentType;
+    private final String title;
+    private final String imageUrl;
+    private final Double score;
+    private final Integer year;
+    private final LocalDateTime changedAt;
+
+    // Alta: favorito vigente, changedAt es su updatedAt
+    public FavoriteChangeDTO(String contentId, String contentType, String title,
+            String imageUrl, Double score, Integer year, LocalDateTime changedAt) {
+        this(ADDED, contentId, contentType, title, imageUrl, score, year, changedAt);
+    }
+
+    // Baja: lápida, changedAt es su deletedAt
+    public FavoriteChangeDTO(String contentId, String contentType, LocalDateTime changedAt) {
+        this(REMOVED, contentId, contentType, null, null, null, null, changedAt);
+    }
+
+    private FavoriteChangeDTO(String action, String contentId, String contentType, String title,
+            String imageUrl, Double score, Integer year, LocalDateTime changedAt) {
+        this.action = action;
+        this.contentId = contentId;
+        this.contentType = contentType;
+        this.title = title;
+        this.imageUrl = imageUrl;
+        this.score = score;
+        this.year = year;
+        this.changedAt = changedAt;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public boolean isAdded() {
+        return ADDED.equals(action);
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    // Favorite.now() guarda UTC: se envía con la Z para que el navegador no la lea como hora local
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+// Proyección de solo lectura de un favorito: no es una entidad gestionada ni arrastra el proxy de User
+public class FavoriteDTO {
+
+    private final Long id;
+    private final String contentId;
+    private final String contentType;
+    private final String title;
+    private final String imageUrl;
+    private final Double score;
+    private final Integer year;
+    private final LocalDateTime addedAt;
+
+    public FavoriteDTO(Long id, String contentId, String contentType, String title,
+            String imageUrl, Double score, Integer year, LocalDateTime addedAt) {
+        this.id = id;
+        this.contentId = contentId;
+        this.contentType = contentType;
+        this.title = title;
+        this.imageUrl = imageUrl;
+        this.score = score;
+        this.year = year;
+        this.addedAt = addedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    // Favorite.now() guarda UTC: se envía con la Z para que el navegador no la lea como hora local
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    public LocalDateTime getAddedAt() {
+        return addedAt;
+    }
+}
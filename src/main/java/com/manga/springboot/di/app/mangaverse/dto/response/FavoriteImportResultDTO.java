@@ -0,0 +1,47 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resultado de una importación: las filas repetidas o no válidas se cuentan y se saltan, no cancelan el resto
+public class FavoriteImportResultDTO {
+
+    private static final int MAX_ERRORS = 20;
+
+    private int imported;
+    private int duplicates;
+    private int invalid;
+    // Solo los primeros errores, para que un fichero entero mal formado no devuelva una respuesta enorme
+    private final List<String> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addDuplicates(int count) {
+        duplicates += count;
+    }
+
+    public void addInvalid(String error) {
+        invalid++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
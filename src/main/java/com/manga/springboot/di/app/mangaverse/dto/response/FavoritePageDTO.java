@@ -0,0 +1,27 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+import java.util.List;
+
+// Página de favoritos con cursor de búsqueda (keyset); nextCursor es null en la última página
+public class FavoritePageDTO {
+
+    private final List<FavoriteDTO> items;
+    private final String nextCursor;
+
+    public FavoritePageDTO(List<FavoriteDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FavoriteDTO> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
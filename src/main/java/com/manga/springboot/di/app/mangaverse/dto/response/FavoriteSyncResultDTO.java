@@ -0,0 +1,36 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+import java.util.List;
+
+// Respuesta de la sincronización: los cambios desde el token del cliente y el token para la próxima vez.
+// Con reset=true changes es la lista completa y el cliente debe sustituir la suya
+public class FavoriteSyncResultDTO {
+
+    private final List<FavoriteChangeDTO> changes;
+    private final String token;
+    private final boolean reset;
+    private final int applied;
+
+    public FavoriteSyncResultDTO(List<FavoriteChangeDTO> changes, String token, boolean reset, int applied) {
+        this.changes = changes;
+        this.token = token;
+        this.reset = reset;
+        this.applied = applied;
+    }
+
+    public List<FavoriteChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+}
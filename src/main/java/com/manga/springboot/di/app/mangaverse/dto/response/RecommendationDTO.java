@@ -0,0 +1,47 @@
+package com.manga.springboot.di.app.mangaverse.dto.response;
+
+// Título recomendado a partir de los favoritos de la comunidad. score es la similitud (coseno) sumada
+// y support cuántos usuarios lo tienen junto a los títulos de partida
+public class RecommendationDTO {
+
+    private final String contentId;
+    private final String contentType;
+    private final String title;
+    private final String imageUrl;
+    private final double score;
+    private final int support;
+
+    public RecommendationDTO(String contentId, String contentType, String title, String imageUrl,
+            double score, int support) {
+        this.contentId = contentId;
+        this.contentType = contentType;
+        this.title = title;
+        this.imageUrl = imageUrl;
+        this.score = score;
+        this.support = support;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public int getSupport() {
+        return support;
+    }
+}
@@ -0,0 +1,36 @@
+package com.manga.springboot.di.app.mangaverse.models;
+
+import jakarta.persistence.*;
+import java.util.Objects;
+
+@Embeddable
+public class CatalogGenre {
+
+    @Column(name = "genre_id", nullable = false)
+    private Integer genreId;
+
+    @Column(name = "name", length = 60)
+    private String name;
+
+    public CatalogGenre() {}
+
+    public CatalogGenre(Integer genreId, String name) {
+        this.genreId = genreId;
+        this.name = name;
+    }
+
+    public Integer getGenreId() { return genreId; }
+    public String getName() { return name; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CatalogGenre genre)) return false;
+        return Objects.equals(genreId, genre.genreId) && Objects.equals(name, genre.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(genreId, name);
+    }
+}
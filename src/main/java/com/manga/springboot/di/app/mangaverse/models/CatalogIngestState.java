@@ -0,0 +1,40 @@
+package com.manga.springboot.di.app.mangaverse.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Por dónde va la ingesta de cada tipo de catálogo, para que cada ejecución continúe donde lo dejó la anterior
+@Entity
+@Table(name = "catalog_ingest_state")
+public class CatalogIngestState {
+
+    @Id
+    @Column(length = 10)
+    private String kind;
+
+    @Column(name = "next_page", nullable = false)
+    private Integer nextPage = 1;
+
+    @Column(name = "completed_passes", nullable = false)
+    private Integer completedPasses = 0;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    public CatalogIngestState() {}
+
+    public CatalogIngestState(String kind) {
+        this.kind = kind;
+    }
+
+    public String getKind() { return kind; }
+
+    public Integer getNextPage() { return nextPage; }
+    public void setNextPage(Integer nextPage) { this.nextPage = nextPage; }
+
+    public Integer getCompletedPasses() { return completedPasses; }
+    public void setCompletedPasses(Integer completedPasses) { this.completedPasses = completedPasses; }
+
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+}
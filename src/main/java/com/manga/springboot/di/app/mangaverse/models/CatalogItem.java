@@ -0,0 +1,114 @@
+package com.manga.springboot.di.app.mangaverse.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Copia local del catálogo de Jikan (anime y manga) para filtrar y ordenar sin salir de la base de datos
+@Entity
+@Table(name = "catalog_items", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_catalog_kind_mal", columnNames = {"kind", "mal_id"})
+}, indexes = {
+    @Index(name = "idx_catalog_kind_members", columnList = "kind, members"),
+    @Index(name = "idx_catalog_kind_score", columnList = "kind, score"),
+    @Index(name = "idx_catalog_kind_year", columnList = "kind, year"),
+    @Index(name = "idx_catalog_kind_type_status", columnList = "kind, type, status, members")
+})
+public class CatalogItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_items_seq")
+    @SequenceGenerator(name = "catalog_items_seq", sequenceName = "catalog_items_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 10)
+    private String kind; // "anime" o "manga"
+
+    @Column(name = "mal_id", nullable = false)
+    private Long malId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "title_english")
+    private String titleEnglish;
+
+    // Resto de títulos de Jikan (sinónimos, japonés...), uno por línea, para que el buscador los encuentre también
+    @Column(name = "alternative_titles", length = 2000)
+    private String alternativeTitles;
+
+    @Column(length = 30)
+    private String type; // tv, movie, ova, manga, novel, one_shot...
+
+    @Column(length = 30)
+    private String status; // airing, complete, upcoming, publishing, hiatus...
+
+    private Double score;
+    private Integer year;
+    private Long members;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    // Índice (genre_id, item_id) para resolver los filtros por género sin recorrer la tabla
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @CollectionTable(name = "catalog_item_genres",
+            joinColumns = @JoinColumn(name = "item_id"),
+            indexes = @Index(name = "idx_catalog_genres_genre", columnList = "genre_id, item_id"))
+    private Set<CatalogGenre> genres = new LinkedHashSet<>();
+
+    @Column(name = "synced_at")
+    private LocalDateTime syncedAt;
+
+    public CatalogItem() {}
+
+    public CatalogItem(String kind, Long malId) {
+        this.kind = kind;
+        this.malId = malId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public Long getMalId() { return malId; }
+    public void setMalId(Long malId) { this.malId = malId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getTitleEnglish() { return titleEnglish; }
+    public void setTitleEnglish(String titleEnglish) { this.titleEnglish = titleEnglish; }
+
+    public String getAlternativeTitles() { return alternativeTitles; }
+    public void setAlternativeTitles(String alternativeTitles) { this.alternativeTitles = alternativeTitles; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Long getMembers() { return members; }
+    public void setMembers(Long members) { this.members = members; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public Set<CatalogGenre> getGenres() { return genres; }
+    public void setGenres(Set<CatalogGenre> genres) { this.genres = genres; }
+
+    public LocalDateTime getSyncedAt() { return syncedAt; }
+    public void setSyncedAt(LocalDateTime syncedAt) { this.syncedAt = syncedAt; }
+}
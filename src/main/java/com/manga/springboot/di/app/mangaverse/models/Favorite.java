@@ -2,16 +2,24 @@ package com.manga.springboot.di.app.mangaverse.models;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @Entity
 @Table(name = "favorites", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "content_id", "content_type"})
+}, indexes = {
+    @Index(name = "idx_favorites_user_added", columnList = "user_id, added_at, id"),
+    @Index(name = "idx_favorites_user_updated", columnList = "user_id, updated_at"),
+    @Index(name = "idx_favorites_user_type_score", columnList = "user_id, content_type, score"),
+    @Index(name = "idx_favorites_user_type_year", columnList = "user_id, content_type, year")
 })
 
 public class Favorite {
     
+    // Secuencia con pool (50 ids por viaje) para que Hibernate pueda agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favorites_seq")
+    @SequenceGenerator(name = "favorites_seq", sequenceName = "favorites_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -46,19 +54,25 @@ public class Favorite {
         this.imageUrl = imageUrl;
         this.score = score;
         this.year = year;
-        this.addedAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.addedAt = now();
+        this.updatedAt = addedAt;
+    }
+    
+    // Reloj único de favoritos y lápidas: la JVM en UTC. La sincronización compara estas fechas con las de los
+    // clientes (last-writer-wins), así que no se mezclan con CURRENT_TIMESTAMP ni con la zona del servidor
+    public static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
     }
     
     @PrePersist
     protected void onCreate() {
-        addedAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        addedAt = now();
+        updatedAt = addedAt;
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
     }
     
     public Long getId() { return id; }
@@ -0,0 +1,62 @@
+package com.manga.springboot.di.app.mangaverse.models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+// Total de favoritos por usuario y tipo, mantenido en la misma transacción que cada alta/baja
+@Entity
+@Table(name = "favorite_counters")
+public class FavoriteCounter {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(nullable = false)
+    private Long total;
+    
+    public FavoriteCounter() {}
+    
+    public FavoriteCounter(Long userId, String contentType, Long total) {
+        this.id = new Key(userId, contentType);
+        this.total = total;
+    }
+    
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+    
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+    
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+        
+        @Column(name = "content_type", nullable = false)
+        private String contentType;
+        
+        public Key() {}
+        
+        public Key(Long userId, String contentType) {
+            this.userId = userId;
+            this.contentType = contentType;
+        }
+        
+        public Long getUserId() { return userId; }
+        public String getContentType() { return contentType; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(contentType, key.contentType);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, contentType);
+        }
+    }
+}
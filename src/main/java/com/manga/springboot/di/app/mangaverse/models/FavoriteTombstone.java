@@ -0,0 +1,72 @@
+package com.manga.springboot.di.app.mangaverse.models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Marca de un favorito borrado, para que la baja llegue a los clientes que sincronizan sin conexión.
+// Se purgan pasado favorites.sync.tombstone-retention; un cliente con un token más antiguo recibe la lista entera
+@Entity
+@Table(name = "favorite_tombstones", indexes = {
+    @Index(name = "idx_favorite_tombstones_user_deleted", columnList = "user_id, deleted_at")
+})
+public class FavoriteTombstone {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    public FavoriteTombstone() {}
+    
+    public FavoriteTombstone(Long userId, String contentId, String contentType, LocalDateTime deletedAt) {
+        this.id = new Key(userId, contentId, contentType);
+        this.deletedAt = deletedAt;
+    }
+    
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+    
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+    
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+        
+        @Column(name = "content_id", nullable = false)
+        private String contentId;
+        
+        @Column(name = "content_type", nullable = false)
+        private String contentType;
+        
+        public Key() {}
+        
+        public Key(Long userId, String contentId, String contentType) {
+            this.userId = userId;
+            this.contentId = contentId;
+            this.contentType = contentType;
+        }
+        
+        public Long getUserId() { return userId; }
+        public String getContentId() { return contentId; }
+        public String getContentType() { return contentType; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(contentId, key.contentId)
+                    && Objects.equals(contentType, key.contentType);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, contentId, contentType);
+        }
+    }
+}
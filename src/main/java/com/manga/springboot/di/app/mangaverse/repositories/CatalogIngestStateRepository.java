@@ -0,0 +1,9 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.models.CatalogIngestState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogIngestStateRepository extends JpaRepository<CatalogIngestState, String> {
+}
@@ -0,0 +1,24 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogTitleDTO;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CatalogItemRepository extends JpaRepository<CatalogItem, Long>, CatalogItemRepositoryCustom {
+    
+    // Los elementos de una página de la ingesta que ya existen, con sus géneros, para actualizarlos en bloque
+    @Query("SELECT DISTINCT i FROM CatalogItem i LEFT JOIN FETCH i.genres WHERE i.kind = :kind AND i.malId IN :malIds")
+    List<CatalogItem> findByKindAndMalIdIn(@Param("kind") String kind, @Param("malIds") Collection<Long> malIds);
+    
+    // Solo las columnas que necesita el buscador en memoria, sin cargar entidades ni géneros
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.CatalogTitleDTO("
+            + "i.kind, i.malId, i.title, i.titleEnglish, i.alternativeTitles, i.type, i.status, i.score, i.year, i.members, i.imageUrl) FROM CatalogItem i")
+    List<CatalogTitleDTO> findAllTitles();
+}
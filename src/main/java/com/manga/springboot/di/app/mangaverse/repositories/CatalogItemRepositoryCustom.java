@@ -0,0 +1,15 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.CatalogFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogFacetDTO;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+
+import java.util.List;
+
+public interface CatalogItemRepositoryCustom {
+    
+    // Devuelve hasta limit + 1 elementos, para saber si hay página siguiente sin un COUNT
+    List<CatalogItem> search(CatalogFilterDTO filter);
+    
+    List<CatalogFacetDTO> genreFacets(CatalogFilterDTO filter);
+}
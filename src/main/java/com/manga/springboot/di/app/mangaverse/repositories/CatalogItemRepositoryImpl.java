@@ -0,0 +1,93 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.CatalogFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogFacetDTO;
+import com.manga.springboot.di.app.mangaverse.models.CatalogGenre;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class CatalogItemRepositoryImpl implements CatalogItemRepositoryCustom {
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "popularity", "members", "score", "score", "year", "year", "title", "title");
+    private static final int MAX_LIMIT = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CatalogItem> search(CatalogFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CatalogItem> query = cb.createQuery(CatalogItem.class);
+        Root<CatalogItem> i = query.from(CatalogItem.class);
+
+        String field = SORTABLE.getOrDefault(filter.getOrderBy() == null ? "" : filter.getOrderBy(), "members");
+        boolean asc = "asc".equalsIgnoreCase(filter.getSort());
+        Path<?> sortPath = i.get(field);
+
+        query.select(i)
+                .where(predicates(cb, query, i, filter))
+                .orderBy(asc ? cb.asc(sortPath) : cb.desc(sortPath), asc ? cb.asc(i.get("id")) : cb.desc(i.get("id")));
+
+        int limit = Math.max(1, Math.min(filter.getLimit(), MAX_LIMIT));
+        int page = Math.max(1, filter.getPage());
+        return entityManager.createQuery(query)
+                .setFirstResult((page - 1) * limit)
+                .setMaxResults(limit + 1)
+                .getResultList();
+    }
+
+    @Override
+    public List<CatalogFacetDTO> genreFacets(CatalogFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CatalogFacetDTO> query = cb.createQuery(CatalogFacetDTO.class);
+        Root<CatalogItem> i = query.from(CatalogItem.class);
+        Join<CatalogItem, CatalogGenre> g = i.join("genres");
+        Expression<Long> count = cb.count(i);
+
+        query.select(cb.construct(CatalogFacetDTO.class, g.get("genreId"), g.get("name"), count))
+                .where(predicates(cb, query, i, filter))
+                .groupBy(g.get("genreId"), g.get("name"))
+                .orderBy(cb.desc(count), cb.asc(g.get("name")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Igual que en las búsquedas de favoritos: solo se añaden los filtros presentes, para que
+    // (kind, type, status) y el índice de géneros se usen tal cual. Varios géneros se combinan con AND, como en Jikan
+    private Predicate[] predicates(CriteriaBuilder cb, AbstractQuery<?> query, Root<CatalogItem> i, CatalogFilterDTO filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(i.get("kind"), filter.getKind()));
+
+        if (filter.getType() != null && !filter.getType().isBlank()) {
+            predicates.add(cb.equal(i.get("type"), filter.getType()));
+        }
+        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
+            predicates.add(cb.equal(i.get("status"), filter.getStatus()));
+        }
+        if (filter.getGenres() != null) {
+            for (Integer genreId : filter.getGenres()) {
+                Subquery<Long> withGenre = query.subquery(Long.class);
+                Root<CatalogItem> j = withGenre.from(CatalogItem.class);
+                Join<CatalogItem, CatalogGenre> genre = j.join("genres");
+                withGenre.select(j.get("id")).where(cb.equal(genre.get("genreId"), genreId));
+                predicates.add(i.get("id").in(withGenre));
+            }
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
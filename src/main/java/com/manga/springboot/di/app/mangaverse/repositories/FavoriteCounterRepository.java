@@ -0,0 +1,57 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.models.FavoriteCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface FavoriteCounterRepository extends JpaRepository<FavoriteCounter, FavoriteCounter.Key> {
+    
+    // Suma (o resta) en una sola sentencia, creando la fila si aún no existe
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO favorite_counters (user_id, content_type, total) VALUES (:userId, :contentType, GREATEST(:delta, 0)) "
+            + "ON DUPLICATE KEY UPDATE total = GREATEST(total + :delta, 0)", nativeQuery = true)
+    int add(@Param("userId") Long userId, @Param("contentType") String contentType, @Param("delta") long delta);
+    
+    @Query("SELECT COALESCE(SUM(c.total), 0) FROM FavoriteCounter c WHERE c.id.userId = :userId")
+    Long sumByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT COALESCE(SUM(c.total), 0) FROM FavoriteCounter c WHERE c.id.userId = :userId AND c.id.contentType = :contentType")
+    Long sumByUserIdAndContentType(@Param("userId") Long userId, @Param("contentType") String contentType);
+    
+    // Siguiente tramo de usuarios con favoritos o contadores, en orden de id (recálculo por tramos)
+    @Query(value = "SELECT user_id FROM (SELECT user_id FROM favorites UNION SELECT user_id FROM favorite_counters) u "
+            + "WHERE user_id > :after ORDER BY user_id LIMIT :limit", nativeQuery = true)
+    List<Long> findUserIdsAfter(@Param("after") Long after, @Param("limit") int limit);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM favorite_counters WHERE user_id > :after AND user_id <= :last", nativeQuery = true)
+    int deleteByUserIdRange(@Param("after") Long after, @Param("last") Long last);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO favorite_counters (user_id, content_type, total) "
+            + "SELECT user_id, content_type, COUNT(*) FROM favorites WHERE user_id > :after AND user_id <= :last "
+            + "GROUP BY user_id, content_type", nativeQuery = true)
+    int insertFromFavoritesByUserIdRange(@Param("after") Long after, @Param("last") Long last);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM favorite_counters WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO favorite_counters (user_id, content_type, total) "
+            + "SELECT user_id, content_type, COUNT(*) FROM favorites WHERE user_id = :userId GROUP BY user_id, content_type",
+            nativeQuery = true)
+    int insertFromFavoritesByUserId(@Param("userId") Long userId);
+}
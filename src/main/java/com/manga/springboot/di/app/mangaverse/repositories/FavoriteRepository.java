@@ -1,17 +1,24 @@
 package com.manga.springboot.di.app.mangaverse.repositories;
 
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
 import com.manga.springboot.di.app.mangaverse.models.Favorite;
 import com.manga.springboot.di.app.mangaverse.models.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
+public interface FavoriteRepository extends JpaRepository<Favorite, Long>, FavoriteRepositoryCustom {
     
     List<Favorite> findByUserOrderByAddedAtDesc(User user);
     
@@ -23,6 +30,54 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     
     void deleteByUserAndContentIdAndContentType(User user, String contentId, String contentType);
     
+    // Borrado condicional en una sola sentencia (deleteBy... hace select + delete)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.contentId = :contentId AND f.contentType = :contentType")
+    int deleteByKey(@Param("userId") Long userId, @Param("contentId") String contentId,
+                    @Param("contentType") String contentType);
+    
+    // Inserta solo si no existe; la restricción única resuelve las carreras entre clics.
+    // El id sale de la misma secuencia que usa Hibernate (ver nextId)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO favorites (id, user_id, content_id, content_type, title, image_url, score, year, added_at, updated_at) "
+            + "VALUES (:id, :userId, :contentId, :contentType, :title, :imageUrl, :score, :year, :now, :now)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") Long id, @Param("userId") Long userId, @Param("contentId") String contentId,
+                       @Param("contentType") String contentType, @Param("title") String title,
+                       @Param("imageUrl") String imageUrl, @Param("score") Double score, @Param("year") Integer year,
+                       @Param("now") LocalDateTime now);
+    
+    // Claves "tipo:id" de todos los favoritos del usuario (para la caché en memoria)
+    @Query("SELECT CONCAT(f.contentType, ':', f.contentId) FROM Favorite f WHERE f.user.id = :userId")
+    List<String> findContentKeysByUserId(@Param("userId") Long userId);
+    
+    // Paginación keyset sobre (user_id, added_at, id), apoyada en idx_favorites_user_added
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO("
+            + "f.id, f.contentId, f.contentType, f.title, f.imageUrl, f.score, f.year, f.addedAt) "
+            + "FROM Favorite f WHERE f.user.id = :userId ORDER BY f.addedAt DESC, f.id DESC")
+    List<FavoriteDTO> findFirstPage(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO("
+            + "f.id, f.contentId, f.contentType, f.title, f.imageUrl, f.score, f.year, f.addedAt) "
+            + "FROM Favorite f WHERE f.user.id = :userId "
+            + "AND (f.addedAt < :addedAt OR (f.addedAt = :addedAt AND f.id < :id)) "
+            + "ORDER BY f.addedAt DESC, f.id DESC")
+    List<FavoriteDTO> findPageAfter(@Param("userId") Long userId, @Param("addedAt") LocalDateTime addedAt,
+                                    @Param("id") Long id, Limit limit);
+    
+    // Altas desde un momento dado (sincronización), apoyado en idx_favorites_user_updated
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO("
+            + "f.contentId, f.contentType, f.title, f.imageUrl, f.score, f.year, f.updatedAt) "
+            + "FROM Favorite f WHERE f.user.id = :userId AND f.updatedAt > :since")
+    List<FavoriteChangeDTO> findChangedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO("
+            + "f.contentId, f.contentType, f.title, f.imageUrl, f.score, f.year, f.updatedAt) "
+            + "FROM Favorite f WHERE f.user.id = :userId AND f.contentId IN :contentIds")
+    List<FavoriteChangeDTO> findByContentIds(@Param("userId") Long userId, @Param("contentIds") Collection<String> contentIds);
+    
     @Query("SELECT COUNT(f) FROM Favorite f WHERE f.user = :user")
     Long countByUser(@Param("user") User user);
     
@@ -0,0 +1,24 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
+import com.manga.springboot.di.app.mangaverse.models.Favorite;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface FavoriteRepositoryCustom {
+
+    // Filtra por tipo, rango de puntuación y de año, y ordena por score/year/addedAt
+    List<FavoriteDTO> search(Long userId, FavoriteFilterDTO filter);
+    
+    // Siguiente id de la secuencia de favoritos, para los INSERT nativos
+    Long nextId();
+    
+    // Inserta en lotes JDBC, vaciando el contexto de persistencia cada lote
+    int bulkInsert(List<Favorite> favorites);
+    
+    // Todos los favoritos del usuario en orden de alta, leídos del cursor de fetchSize en fetchSize.
+    // Hay que consumirlo (y cerrarlo) dentro de una transacción
+    Stream<FavoriteDTO> streamByUserId(Long userId, int fetchSize);
+}
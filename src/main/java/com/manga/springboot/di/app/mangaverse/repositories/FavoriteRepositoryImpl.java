@@ -0,0 +1,118 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
+import com.manga.springboot.di.app.mangaverse.models.Favorite;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class FavoriteRepositoryImpl implements FavoriteRepositoryCustom {
+
+    private static final Set<String> SORTABLE = Set.of("addedAt", "score", "year");
+    private static final int MAX_LIMIT = 200;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Solo se añaden los predicados presentes: así cada combinación de filtros
+    // llega a la base de datos como una condición de rango sobre un índice compuesto
+    // (user_id, content_type, score|year) en vez de un "(:p IS NULL OR ...)" que los anula
+    @Override
+    public List<FavoriteDTO> search(Long userId, FavoriteFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FavoriteDTO> query = cb.createQuery(FavoriteDTO.class);
+        Root<Favorite> f = query.from(Favorite.class);
+
+        query.select(cb.construct(FavoriteDTO.class,
+                f.get("id"), f.get("contentId"), f.get("contentType"), f.get("title"),
+                f.get("imageUrl"), f.get("score"), f.get("year"), f.get("addedAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(f.get("user").get("id"), userId));
+
+        if (filter.getContentType() != null && !filter.getContentType().isBlank()) {
+            predicates.add(cb.equal(f.get("contentType"), filter.getContentType()));
+        }
+        if (filter.getMinScore() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(f.get("score"), filter.getMinScore()));
+        }
+        if (filter.getMaxScore() != null) {
+            predicates.add(cb.lessThanOrEqualTo(f.get("score"), filter.getMaxScore()));
+        }
+        if (filter.getMinYear() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(f.get("year"), filter.getMinYear()));
+        }
+        if (filter.getMaxYear() != null) {
+            predicates.add(cb.lessThanOrEqualTo(f.get("year"), filter.getMaxYear()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        String sort = filter.getSort() != null && SORTABLE.contains(filter.getSort()) ? filter.getSort() : "addedAt";
+        boolean ascending = "asc".equalsIgnoreCase(filter.getDirection());
+        Path<Object> sortPath = f.get(sort);
+        Path<Object> idPath = f.get("id");
+        query.orderBy(ascending
+                ? List.<Order>of(cb.asc(sortPath), cb.asc(idPath))
+                : List.<Order>of(cb.desc(sortPath), cb.desc(idPath)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(Math.min(Math.max(filter.getLimit(), 1), MAX_LIMIT))
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Long nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Favorite.class);
+        return (Long) ((IdentifierGenerator) persister.getGenerator()).generate(session, null);
+    }
+
+    // Persiste en bloques del tamaño del lote JDBC y vacía el contexto para no acumular entidades
+    @Override
+    @Transactional
+    public int bulkInsert(List<Favorite> favorites) {
+        for (int i = 0; i < favorites.size(); i++) {
+            entityManager.persist(favorites.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return favorites.size();
+    }
+
+    // Proyección a DTO: no hay entidades que se acumulen en el contexto de persistencia mientras se recorre
+    @Override
+    public Stream<FavoriteDTO> streamByUserId(Long userId, int fetchSize) {
+        return entityManager.createQuery("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO("
+                        + "f.id, f.contentId, f.contentType, f.title, f.imageUrl, f.score, f.year, f.addedAt) "
+                        + "FROM Favorite f WHERE f.user.id = :userId ORDER BY f.addedAt, f.id", FavoriteDTO.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,45 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO;
+import com.manga.springboot.di.app.mangaverse.models.FavoriteTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FavoriteTombstoneRepository extends JpaRepository<FavoriteTombstone, FavoriteTombstone.Key> {
+    
+    // Crea la lápida o actualiza su fecha si el contenido ya se había borrado antes. La fecha llega de
+    // Favorite.now(), el mismo reloj que las altas, así un borrado y un alta seguidos se ordenan bien
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO favorite_tombstones (user_id, content_id, content_type, deleted_at) "
+            + "VALUES (:userId, :contentId, :contentType, :now) "
+            + "ON DUPLICATE KEY UPDATE deleted_at = :now", nativeQuery = true)
+    int record(@Param("userId") Long userId, @Param("contentId") String contentId,
+               @Param("contentType") String contentType, @Param("now") LocalDateTime now);
+    
+    // Bajas desde un momento dado, apoyado en idx_favorite_tombstones_user_deleted
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO("
+            + "t.id.contentId, t.id.contentType, t.deletedAt) "
+            + "FROM FavoriteTombstone t WHERE t.id.userId = :userId AND t.deletedAt > :since")
+    List<FavoriteChangeDTO> findChangedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT new com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO("
+            + "t.id.contentId, t.id.contentType, t.deletedAt) "
+            + "FROM FavoriteTombstone t WHERE t.id.userId = :userId AND t.id.contentId IN :contentIds")
+    List<FavoriteChangeDTO> findByContentIds(@Param("userId") Long userId,
+                                             @Param("contentIds") Collection<String> contentIds);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM favorite_tombstones WHERE deleted_at < :cutoff", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
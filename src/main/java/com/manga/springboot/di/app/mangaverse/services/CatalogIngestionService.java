@@ -0,0 +1,269 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manga.springboot.di.app.mangaverse.models.CatalogGenre;
+import com.manga.springboot.di.app.mangaverse.models.CatalogIngestState;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogIngestStateRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Rellena el catálogo local recorriendo Jikan página a página (ordenado por mal_id para que las páginas sean estables).
+// Cada ejecución procesa unas pocas páginas respetando el límite de peticiones y guarda por dónde va
+@Service
+public class CatalogIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestionService.class);
+
+    public static final List<String> KINDS = List.of("anime", "manga");
+    private static final int PAGE_SIZE = 25;
+
+    // Estados de Jikan -> valores de los filtros del catálogo
+    private static final Map<String, String> STATUSES = Map.of(
+            "currently airing", "airing",
+            "finished airing", "complete",
+            "not yet aired", "upcoming",
+            "publishing", "publishing",
+            "finished", "complete",
+            "on hiatus", "hiatus",
+            "discontinued", "discontinued",
+            "not yet published", "upcoming");
+
+    // Jikan filtra por "genres" usando también temáticas y demografías (p. ej. Shounen o Escolar)
+    private static final List<String> GENRE_FIELDS = List.of("genres", "explicit_genres", "themes", "demographics");
+    private static final int MAX_ALTERNATIVE_TITLES = 2000;
+
+    @Autowired
+    private JikanClient jikanClient;
+
+    @Autowired
+    private CatalogItemRepository itemRepository;
+
+    @Autowired
+    private CatalogIngestStateRepository stateRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @Value("${catalog.ingest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.ingest.pages-per-run:20}")
+    private int pagesPerRun;
+
+    @Value("${catalog.ingest.min-interval:1200ms}")
+    private Duration minInterval;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private long lastRequestAt;
+
+    @Scheduled(fixedDelayString = "${catalog.ingest.interval:PT30M}", initialDelayString = "${catalog.ingest.initial-delay:PT1M}")
+    public void scheduledIngest() {
+        if (!enabled) {
+            return;
+        }
+        for (String kind : KINDS) {
+            try {
+                int saved = ingest(kind, pagesPerRun);
+                log.info("Ingesta del catálogo de {}: {} elementos guardados", kind, saved);
+            } catch (Exception e) {
+                log.warn("Ingesta del catálogo de {} interrumpida: {}", kind, e.getMessage());
+            }
+        }
+    }
+
+    // Procesa como mucho maxPages páginas desde donde se quedó la ejecución anterior.
+    // Al llegar a la última página vuelve a empezar, así las puntuaciones y estados se refrescan en cada pasada
+    public int ingest(String kind, int maxPages) {
+        if (!KINDS.contains(kind)) {
+            throw new IllegalArgumentException("Tipo de catálogo no válido: " + kind);
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Ya hay una ingesta del catálogo en curso");
+            return 0;
+        }
+
+        try {
+            int saved = 0;
+            for (int n = 0; n < maxPages; n++) {
+                CatalogIngestState state = stateRepository.findById(kind).orElseGet(() -> new CatalogIngestState(kind));
+                int page = state.getNextPage();
+
+                throttle();
+                JsonNode root = readTree(jikanClient.getUncached(
+                        "/" + kind + "?order_by=mal_id&sort=asc&limit=" + PAGE_SIZE + "&page=" + page));
+                boolean hasNext = root.path("pagination").path("has_next_page").asBoolean(false);
+
+                List<CatalogItem> items = transactionTemplate.execute(status -> {
+                    List<CatalogItem> upserted = upsert(kind, root.path("data"));
+                    if (hasNext) {
+                        state.setNextPage(page + 1);
+                    } else {
+                        state.setNextPage(1);
+                        state.setCompletedPasses(state.getCompletedPasses() + 1);
+                    }
+                    state.setLastRunAt(LocalDateTime.now());
+                    stateRepository.save(state);
+                    return upserted;
+                });
+                titleSearchService.indexItems(items);
+                saved += items.size();
+
+                if (!hasNext) {
+                    break;
+                }
+            }
+            return saved;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<CatalogItem> upsert(String kind, JsonNode data) {
+        List<Long> malIds = new ArrayList<>();
+        data.forEach(node -> malIds.add(node.path("mal_id").asLong()));
+        if (malIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, CatalogItem> existing = itemRepository.findByKindAndMalIdIn(kind, malIds).stream()
+                .collect(Collectors.toMap(CatalogItem::getMalId, Function.identity()));
+
+        List<CatalogItem> items = new ArrayList<>();
+        for (JsonNode node : data) {
+            Long malId = node.path("mal_id").asLong();
+            CatalogItem item = existing.getOrDefault(malId, new CatalogItem(kind, malId));
+            apply(item, node);
+            items.add(item);
+        }
+        return itemRepository.saveAll(items);
+    }
+
+    private static void apply(CatalogItem item, JsonNode node) {
+        item.setTitle(text(node, "title"));
+        item.setTitleEnglish(text(node, "title_english"));
+        item.setAlternativeTitles(alternativeTitles(node, item.getTitle(), item.getTitleEnglish()));
+        item.setType(normalize(text(node, "type")));
+        item.setStatus(status(text(node, "status")));
+        item.setScore(node.path("score").isNumber() ? node.path("score").asDouble() : null);
+        item.setMembers(node.path("members").isNumber() ? node.path("members").asLong() : null);
+        item.setImageUrl(text(node.path("images").path("jpg"), "image_url"));
+        item.setYear(year(node));
+        item.setSyncedAt(LocalDateTime.now());
+
+        Set<CatalogGenre> genres = new LinkedHashSet<>();
+        for (String field : GENRE_FIELDS) {
+            node.path(field).forEach(g -> genres.add(new CatalogGenre(g.path("mal_id").asInt(), text(g, "name"))));
+        }
+        // Solo se reescribe la colección si cambió, para no borrar y reinsertar los géneros en cada pasada
+        if (!item.getGenres().equals(genres)) {
+            item.getGenres().clear();
+            item.getGenres().addAll(genres);
+        }
+    }
+
+    // titles[] trae {type, title} con el título por defecto, sinónimos, japonés, inglés...: se guardan los
+    // que no están ya en title o title_english, uno por línea y sin pasar del tamaño de la columna
+    private static String alternativeTitles(JsonNode node, String title, String titleEnglish) {
+        Set<String> titles = new LinkedHashSet<>();
+        node.path("titles").forEach(t -> {
+            String value = text(t, "title");
+            if (value != null && !value.isBlank() && !value.equals(title) && !value.equals(titleEnglish)) {
+                titles.add(value.strip());
+            }
+        });
+        StringBuilder joined = new StringBuilder();
+        for (String value : titles) {
+            if (joined.length() + value.length() + 1 > MAX_ALTERNATIVE_TITLES) {
+                break;
+            }
+            if (!joined.isEmpty()) {
+                joined.append('\n');
+            }
+            joined.append(value);
+        }
+        return joined.isEmpty() ? null : joined.toString();
+    }
+
+    private static Integer year(JsonNode node) {
+        if (node.path("year").isInt()) {
+            return node.path("year").asInt();
+        }
+        for (String field : List.of("aired", "published")) {
+            JsonNode year = node.path(field).path("prop").path("from").path("year");
+            if (year.isInt()) {
+                return year.asInt();
+            }
+        }
+        return null;
+    }
+
+    // "TV" -> "tv", "One-shot" -> "one_shot", "Light Novel" -> "light_novel"
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+    }
+
+    private static String status(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = value.trim().toLowerCase(Locale.ROOT);
+        return STATUSES.getOrDefault(key, normalize(key));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isTextual() ? value.asText() : null;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta de Jikan no válida", e);
+        }
+    }
+
+    // Jikan admite ~3 peticiones por segundo y 60 por minuto: dejamos un intervalo mínimo entre páginas
+    private synchronized void throttle() {
+        long wait = lastRequestAt + minInterval.toMillis() - System.currentTimeMillis();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ingesta del catálogo interrumpida", e);
+            }
+        }
+        lastRequestAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,90 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.CatalogFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogFacetDTO;
+import com.manga.springboot.di.app.mangaverse.models.CatalogGenre;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogIngestStateRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Consultas sobre el catálogo local. Las respuestas imitan el formato de Jikan ({data, pagination})
+// para que el front pueda usar indistintamente el catálogo local o la pasarela
+@Service
+public class CatalogService {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private CatalogItemRepository itemRepository;
+
+    @Autowired
+    private CatalogIngestStateRepository stateRepository;
+
+    // Solo tras una pasada completa de la ingesta: con las primeras páginas los filtros darían resultados incompletos
+    public boolean isAvailable(String kind) {
+        return stateRepository.findById(kind)
+                .map(state -> state.getCompletedPasses() > 0)
+                .orElse(false);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(CatalogFilterDTO filter) {
+        filter.setLimit(Math.max(1, Math.min(filter.getLimit(), MAX_LIMIT)));
+        filter.setPage(Math.max(1, filter.getPage()));
+
+        List<CatalogItem> items = itemRepository.search(filter);
+        boolean hasNext = items.size() > filter.getLimit();
+        if (hasNext) {
+            items = items.subList(0, filter.getLimit());
+        }
+
+        List<Map<String, Object>> data = new ArrayList<>();
+        items.forEach(item -> data.add(toJikanFormat(item)));
+
+        Map<String, Object> pagination = new LinkedHashMap<>();
+        pagination.put("current_page", filter.getPage());
+        pagination.put("has_next_page", hasNext);
+        pagination.put("items", Map.of("count", data.size(), "per_page", filter.getLimit()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("pagination", pagination);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogFacetDTO> getGenreFacets(CatalogFilterDTO filter) {
+        return itemRepository.genreFacets(filter);
+    }
+
+    private static Map<String, Object> toJikanFormat(CatalogItem item) {
+        List<Map<String, Object>> genres = new ArrayList<>();
+        for (CatalogGenre genre : item.getGenres()) {
+            Map<String, Object> g = new HashMap<>();
+            g.put("mal_id", genre.getGenreId());
+            g.put("name", genre.getName());
+            genres.add(g);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mal_id", item.getMalId());
+        result.put("title", item.getTitle());
+        result.put("type", item.getType());
+        result.put("status", item.getStatus());
+        result.put("score", item.getScore());
+        result.put("year", item.getYear());
+        result.put("members", item.getMembers());
+        result.put("images", Map.of("jpg", item.getImageUrl() != null ? Map.of("image_url", item.getImageUrl()) : Map.of()));
+        result.put("genres", genres);
+        return result;
+    }
+}
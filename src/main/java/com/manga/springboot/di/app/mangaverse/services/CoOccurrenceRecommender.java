@@ -0,0 +1,433 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.RecommendationDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+// "Quien guardó esto también guardó...": matriz de co-ocurrencias título-título construida con la tabla favorites.
+// Cada fila es un IntIntMap (vecino -> usuarios que tienen ambos), así la matriz dispersa no crea un objeto por par.
+// Se reconstruye entera de vez en cuando (en paralelo, fork/join por tramos de filas) y entre medias se
+// actualiza con cada alta y baja de favoritos. Las consultas se resuelven en memoria
+@Service
+public class CoOccurrenceRecommender implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CoOccurrenceRecommender.class);
+
+    private static final String FAVORITES = "SELECT user_id, content_type, content_id, title, image_url FROM favorites";
+    private static final int FETCH_SIZE = 1000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private FavoriteShards favoriteShards;
+
+    @Autowired
+    private FavoriteCache favoriteCache;
+
+    @Value("${recommendations.enabled:true}")
+    private boolean enabled;
+
+    // Las listas más largas (colecciones volcadas enteras) no dicen qué títulos gustan juntos y
+    // cuestan n² pares: esos usuarios no cuentan para la matriz
+    @Value("${recommendations.max-basket:500}")
+    private int maxBasket;
+
+    // Pares vistos en menos usuarios que esto no se recomiendan
+    @Value("${recommendations.min-support:2}")
+    private int minSupport;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Model model;
+    // Cambios llegados durante una reconstrucción, para aplicarlos sobre la matriz nueva
+    private List<FavoriteChangedEvent> pending;
+
+    @Scheduled(fixedDelayString = "${recommendations.rebuild-interval:PT6H}", initialDelayString = "${recommendations.initial-delay:PT30S}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("No se pudieron recalcular las recomendaciones: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Model next = null;
+        try {
+            next = build();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // Aplicar los cambios en orden es idempotente (cada cesta sabe qué títulos tiene):
+                // da igual si la lectura de la tabla ya los incluía
+                if (next != null) {
+                    pending.forEach(next::apply);
+                    model = next;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Recomendaciones recalculadas: {} títulos, {} usuarios, {} pares en {} ms",
+                next.items.size(), next.baskets.size(), next.pairs(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (model != null) {
+                model.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return model != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Títulos que más aparecen junto a este en las listas de favoritos
+    public List<RecommendationDTO> alsoFavorited(String contentType, String contentId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (model == null) {
+                return List.of();
+            }
+            Integer item = model.ids.get(FavoriteCache.key(contentType, contentId));
+            if (item == null || model.rows[item] == null) {
+                return List.of();
+            }
+            Map<Integer, Candidate> candidates = new HashMap<>();
+            model.addNeighbors(item, candidates, Set.of(item), minSupport);
+            return model.top(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recomendaciones para un usuario: los vecinos de todos sus favoritos, sin los que ya tiene
+    public List<RecommendationDTO> feed(Long userId, int limit) {
+        Set<String> keys = favoriteCache.getKeys(userId);
+        lock.readLock().lock();
+        try {
+            if (model == null) {
+                return List.of();
+            }
+            Set<Integer> owned = new HashSet<>();
+            for (String key : keys) {
+                Integer item = model.ids.get(key);
+                if (item != null) {
+                    owned.add(item);
+                }
+            }
+            Map<Integer, Candidate> candidates = new HashMap<>();
+            int seeds = 0;
+            for (Integer item : owned) {
+                if (seeds++ == maxBasket) {
+                    break;
+                }
+                model.addNeighbors(item, candidates, owned, minSupport);
+            }
+            return model.top(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mangaverse.recommendations.items", this, recommender -> recommender.stat(m -> m.items.size()))
+                .description("Títulos en la matriz de co-ocurrencias")
+                .register(registry);
+        Gauge.builder("mangaverse.recommendations.pairs", this, recommender -> recommender.stat(Model::pairs))
+                .register(registry);
+    }
+
+    private double stat(ToLongFunction<Model> value) {
+        lock.readLock().lock();
+        try {
+            return model == null ? 0 : value.applyAsLong(model);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Cestas de todos los usuarios (cada usuario vive en un solo shard) y después las filas en paralelo
+    private Model build() {
+        Model next = new Model(maxBasket);
+        List<Map<Long, IntIntMap>> perShard = favoriteShards.onAllShards(shard -> {
+            Map<Long, IntIntMap> baskets = new HashMap<>();
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.setFetchSize(FETCH_SIZE);
+            jdbc.query(FAVORITES, rs -> {
+                int item;
+                synchronized (next) {
+                    item = next.intern(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+                }
+                baskets.computeIfAbsent(rs.getLong(1), id -> new IntIntMap()).addTo(item, 1);
+            });
+            return baskets;
+        });
+
+        List<int[]> counted = new ArrayList<>();
+        for (Map<Long, IntIntMap> baskets : perShard) {
+            baskets.forEach((userId, basket) -> {
+                if (basket.size() > maxBasket) {
+                    next.excluded.add(userId);
+                    return;
+                }
+                next.baskets.put(userId, basket);
+                int[] items = new int[basket.size()];
+                int[] index = {0};
+                basket.forEach((item, value) -> {
+                    items[index[0]++] = item;
+                    next.popularity[item]++;
+                });
+                counted.add(items);
+            });
+        }
+
+        ForkJoinPool.commonPool().invoke(new RowTask(counted.toArray(new int[0][]), next.rows, 0, next.items.size(),
+                Math.max(256, next.items.size() / (ForkJoinPool.getCommonPoolParallelism() * 4))));
+        return next;
+    }
+
+    // Cada tarea rellena solo las filas de su tramo de títulos: ningún IntIntMap se comparte entre hilos
+    private static class RowTask extends RecursiveAction {
+
+        private final int[][] baskets;
+        private final IntIntMap[] rows;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RowTask(int[][] baskets, IntIntMap[] rows, int from, int to, int threshold) {
+            this.baskets = baskets;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(baskets, rows, from, middle, threshold),
+                        new RowTask(baskets, rows, middle, to, threshold));
+                return;
+            }
+            for (int[] basket : baskets) {
+                for (int item : basket) {
+                    if (item < from || item >= to || basket.length == 1) {
+                        continue;
+                    }
+                    IntIntMap row = rows[item];
+                    if (row == null) {
+                        row = rows[item] = new IntIntMap();
+                    }
+                    for (int other : basket) {
+                        if (other != item) {
+                            row.addTo(other, 1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private record Item(String contentId, String contentType, String title, String imageUrl) {
+    }
+
+    private static final class Candidate {
+        final int item;
+        double score;
+        int support;
+
+        Candidate(int item) {
+            this.item = item;
+        }
+    }
+
+    private static final class Model {
+
+        final int maxBasket;
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<Item> items = new ArrayList<>();
+        int[] popularity = new int[1024];
+        IntIntMap[] rows = new IntIntMap[1024];
+        final Map<Long, IntIntMap> baskets = new HashMap<>();
+        final Set<Long> excluded = new HashSet<>();
+
+        Model(int maxBasket) {
+            this.maxBasket = maxBasket;
+        }
+
+        int intern(String contentType, String contentId, String title, String imageUrl) {
+            Integer id = ids.get(FavoriteCache.key(contentType, contentId));
+            if (id != null) {
+                return id;
+            }
+            int item = items.size();
+            items.add(new Item(contentId, contentType, title, imageUrl));
+            ids.put(FavoriteCache.key(contentType, contentId), item);
+            if (item == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+                popularity = Arrays.copyOf(popularity, popularity.length * 2);
+            }
+            return item;
+        }
+
+        long pairs() {
+            long pairs = 0;
+            for (int i = 0; i < items.size(); i++) {
+                if (rows[i] != null) {
+                    pairs += rows[i].size();
+                }
+            }
+            return pairs / 2;
+        }
+
+        void apply(FavoriteChangedEvent event) {
+            if (excluded.contains(event.userId())) {
+                return;
+            }
+            if (FavoriteChangedEvent.ADDED.equals(event.action())) {
+                int item = intern(event.contentType(), event.contentId(), event.title(), event.imageUrl());
+                IntIntMap basket = baskets.computeIfAbsent(event.userId(), id -> new IntIntMap());
+                if (basket.containsKey(item)) {
+                    return;
+                }
+                if (basket.size() >= maxBasket) {
+                    exclude(event.userId(), basket);
+                    return;
+                }
+                basket.forEach((other, value) -> link(item, other, 1));
+                basket.addTo(item, 1);
+                popularity[item]++;
+            } else {
+                Integer item = ids.get(FavoriteCache.key(event.contentType(), event.contentId()));
+                IntIntMap basket = baskets.get(event.userId());
+                if (item == null || basket == null || basket.remove(item) == 0) {
+                    return;
+                }
+                popularity[item]--;
+                basket.forEach((other, value) -> link(item, other, -1));
+                if (basket.isEmpty()) {
+                    baskets.remove(event.userId());
+                }
+            }
+        }
+
+        // Una lista que pasa del máximo deja de contar: se restan todos sus pares
+        private void exclude(Long userId, IntIntMap basket) {
+            basket.forEach((item, value) -> {
+                popularity[item]--;
+                basket.forEach((other, ignored) -> {
+                    if (other != item) {
+                        rows[item].addTo(other, -1);
+                    }
+                });
+            });
+            baskets.remove(userId);
+            excluded.add(userId);
+        }
+
+        private void link(int item, int other, int delta) {
+            row(item).addTo(other, delta);
+            row(other).addTo(item, delta);
+        }
+
+        private IntIntMap row(int item) {
+            if (rows[item] == null) {
+                rows[item] = new IntIntMap();
+            }
+            return rows[item];
+        }
+
+        // Similitud coseno entre títulos: co-ocurrencias / sqrt(popularidad de cada uno), así los títulos que
+        // están en todas las listas no copan las recomendaciones
+        void addNeighbors(int item, Map<Integer, Candidate> candidates, Set<Integer> exclude, int minSupport) {
+            IntIntMap row = rows[item];
+            if (row == null) {
+                return;
+            }
+            row.forEach((other, count) -> {
+                if (count < minSupport || exclude.contains(other)) {
+                    return;
+                }
+                Candidate candidate = candidates.computeIfAbsent(other, Candidate::new);
+                candidate.score += count / Math.sqrt((double) popularity[item] * popularity[other]);
+                candidate.support += count;
+            });
+        }
+
+        List<RecommendationDTO> top(Map<Integer, Candidate> candidates, int limit) {
+            Comparator<Candidate> order = Comparator.<Candidate>comparingDouble(c -> c.score)
+                    .thenComparingInt(c -> c.support)
+                    .thenComparing(c -> -c.item);
+            PriorityQueue<Candidate> best = new PriorityQueue<>(order);
+            for (Candidate candidate : candidates.values()) {
+                best.add(candidate);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Candidate> sorted = new ArrayList<>(best);
+            sorted.sort(order.reversed());
+            List<RecommendationDTO> result = new ArrayList<>(sorted.size());
+            for (Candidate candidate : sorted) {
+                Item info = items.get(candidate.item);
+                result.add(new RecommendationDTO(info.contentId(), info.contentType(), info.title(), info.imageUrl(),
+                        Math.round(candidate.score * 1000) / 1000.0, candidate.support));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+// Secciones del dashboard, la portada y los catálogos (en emisión, populares, próximos...) construidas
+// en segundo plano cada pocos minutos. El resultado se guarda ya serializado y comprimido, así servir
+// /api/dashboard es copiar bytes: sin llamadas a Jikan ni serialización JSON por visita
+@Service
+public class DashboardSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSnapshotService.class);
+
+    public record Snapshot(byte[] json, byte[] gzip, String etag, Instant generatedAt) {
+
+        // Los bytes comprimidos son otra representación: un ETag fuerte no puede compartirse con la versión sin comprimir
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    // limit es el máximo que pide cualquier página para esa sección; las que piden menos recortan
+    private record Section(String kind, String name, String path, int limit) {
+    }
+
+    private static final List<Section> SECTIONS = List.of(
+            new Section("anime", "airing", "/top/anime?filter=airing&limit=20", 20),
+            new Section("anime", "bypopularity", "/top/anime?filter=bypopularity&limit=20", 20),
+            new Section("anime", "upcoming", "/top/anime?filter=upcoming&limit=12", 12),
+            new Section("anime", "favorite", "/top/anime?filter=favorite&limit=15", 15),
+            new Section("manga", "top", "/top/manga?limit=20", 20),
+            new Section("manga", "latest", "/manga?order_by=start_date&sort=desc&limit=12", 12));
+
+    // Campos de cada título que usan las tarjetas; el resto de la respuesta de Jikan no se guarda
+    private static final Set<String> FIELDS = Set.of(
+            "mal_id", "title", "images", "score", "type", "rank", "popularity", "members", "favorites",
+            "status", "episodes", "chapters", "volumes", "year", "aired", "published", "synopsis",
+            "genres", "rating", "studios", "authors");
+
+    @Autowired
+    private JikanClient jikanClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dashboard.snapshot.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Última versión buena de cada sección, por si Jikan falla en la siguiente pasada
+    private final Map<Section, ArrayNode> lastGood = new LinkedHashMap<>();
+
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.interval:PT15M}", initialDelayString = "${dashboard.snapshot.initial-delay:PT5S}")
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("No se pudo actualizar el dashboard: {}", e.getMessage());
+        }
+    }
+
+    // null mientras no se haya construido ninguna versión
+    public Snapshot getSnapshot() {
+        return current.get();
+    }
+
+    public synchronized Snapshot refresh() {
+        Map<Section, CompletableFuture<String>> responses = new LinkedHashMap<>();
+        SECTIONS.forEach(section -> responses.put(section, jikanClient.getAsync(section.path())));
+
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode limits = root.putObject("limits");
+        int failed = 0;
+        for (Section section : SECTIONS) {
+            ArrayNode items;
+            try {
+                items = trim(objectMapper.readTree(responses.get(section).join()).path("data"));
+                lastGood.put(section, items);
+            } catch (Exception e) {
+                failed++;
+                log.debug("Sección {}/{} no disponible: {}", section.kind(), section.name(), e.getMessage());
+                items = lastGood.get(section);
+                if (items == null) {
+                    continue;
+                }
+            }
+            root.withObjectProperty(section.kind()).set(section.name(), items);
+            limits.withObjectProperty(section.kind()).put(section.name(), section.limit());
+        }
+        if (failed == SECTIONS.size()) {
+            throw new IllegalStateException("Jikan no respondió a ninguna sección");
+        }
+
+        byte[] json = serialize(root);
+        Snapshot previous = current.get();
+        // Si nada cambió se mantiene la versión anterior (y su ETag), así los navegadores siguen recibiendo 304
+        if (previous != null && Arrays.equals(previous.json(), json)) {
+            return previous;
+        }
+        Snapshot snapshot = new Snapshot(json, gzip(json), etag(json), Instant.now());
+        current.set(snapshot);
+        log.info("Dashboard actualizado: {} bytes ({} comprimido)", json.length, snapshot.gzip().length);
+        return snapshot;
+    }
+
+    private ArrayNode trim(JsonNode data) {
+        if (!data.isArray()) {
+            throw new IllegalStateException("Respuesta de Jikan sin lista de títulos");
+        }
+        ArrayNode items = objectMapper.createArrayNode();
+        for (JsonNode item : data) {
+            ObjectNode trimmed = items.addObject();
+            item.properties().forEach(field -> {
+                if (FIELDS.contains(field.getKey())) {
+                    trimmed.set(field.getKey(), field.getValue());
+                }
+            });
+        }
+        return items;
+    }
+
+    private byte[] serialize(ObjectNode root) {
+        try {
+            return objectMapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
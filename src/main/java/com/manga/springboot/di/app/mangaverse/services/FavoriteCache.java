@@ -0,0 +1,127 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Conjunto de favoritos de cada usuario en memoria: se carga una vez por usuario
+// y se mantiene al día con cada alta/baja, así isFavorite no va a la base de datos.
+// La caché es de cada nodo: los cambios hechos en otro nodo se ven al caducar la entrada, que se
+// vuelve a cargar ttl después de cargarse (ni las lecturas ni las altas/bajas locales alargan ese plazo)
+@Component
+public class FavoriteCache implements MeterBinder {
+
+    private final FavoriteRepository favoriteRepository;
+    private final FavoriteShards favoriteShards;
+    private final LoadingCache<Long, Set<String>> cache;
+    // Un cerrojo por usuario; con weakValues desaparece cuando nadie lo está usando
+    private final LoadingCache<Long, ReentrantLock> locks = Caffeine.newBuilder()
+            .weakValues()
+            .build(userId -> new ReentrantLock());
+
+    public FavoriteCache(FavoriteRepository favoriteRepository, FavoriteShards favoriteShards,
+            @Value("${favorites.cache.max-users:10000}") long maxUsers,
+            @Value("${favorites.cache.ttl:30s}") Duration ttl) {
+        this.favoriteRepository = favoriteRepository;
+        this.favoriteShards = favoriteShards;
+        long ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfter(new Expiry<Long, Set<String>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Set<String> keys, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Set<String> keys, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Set<String> keys, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(this::load);
+    }
+
+    // Aciertos, fallos, cargas y expulsiones como cache.* {cache="favorites"}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "favorites");
+    }
+
+    public static String key(String contentType, String contentId) {
+        return contentType + ":" + contentId;
+    }
+
+    public boolean contains(Long userId, String contentType, String contentId) {
+        return cache.get(userId).contains(key(contentType, contentId));
+    }
+
+    public Set<String> getKeys(Long userId) {
+        return cache.get(userId);
+    }
+
+    // Los cambios se aplican tras el commit para no exponer datos de una transacción que puede fallar
+    public void added(Long userId, String contentType, String contentId) {
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, keys) -> {
+            keys.add(key(contentType, contentId));
+            return keys;
+        }));
+    }
+
+    public void removed(Long userId, String contentType, String contentId) {
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, keys) -> {
+            keys.remove(key(contentType, contentId));
+            return keys;
+        }));
+    }
+
+    // Serializa las escrituras de un mismo usuario para que la caché se actualice en el orden de la base de datos.
+    // El cerrojo es solo de ese usuario: las transacciones de otros no esperan por él
+    public <T> T withUserLock(Long userId, Supplier<T> action) {
+        ReentrantLock lock = locks.get(userId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Set<String> load(Long userId) {
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        keys.addAll(favoriteShards.forUser(userId, () -> favoriteRepository.findContentKeysByUserId(userId)));
+        return keys;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
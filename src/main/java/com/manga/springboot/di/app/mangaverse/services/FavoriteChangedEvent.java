@@ -0,0 +1,19 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+// Alta o baja de un favorito. Se publica dentro de la transacción y FavoriteEventBroadcaster lo envía
+// a las pestañas abiertas del usuario solo si hace commit
+public record FavoriteChangedEvent(Long userId, String action, String contentId, String contentType,
+                                   String title, String imageUrl, Double score, Integer year) {
+
+    public static final String ADDED = "added";
+    public static final String REMOVED = "removed";
+
+    public static FavoriteChangedEvent added(Long userId, String contentId, String contentType,
+                                             String title, String imageUrl, Double score, Integer year) {
+        return new FavoriteChangedEvent(userId, ADDED, contentId, contentType, title, imageUrl, score, year);
+    }
+
+    public static FavoriteChangedEvent removed(Long userId, String contentId, String contentType) {
+        return new FavoriteChangedEvent(userId, REMOVED, contentId, contentType, null, null, null, null);
+    }
+}
@@ -0,0 +1,108 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteCounterRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Contadores desnormalizados de favoritos: las lecturas son O(1) por usuario,
+// y un trabajo periódico los recalcula desde la tabla favorites por si se desvían
+@Service
+public class FavoriteCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteCounterService.class);
+
+    @Autowired
+    private FavoriteCounterRepository counterRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FavoriteShards favoriteShards;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // Usuarios por transacción en el recálculo completo: cada tramo bloquea solo sus filas y durante poco tiempo
+    @Value("${favorites.counters.rebuild-batch:500}")
+    private int rebuildBatch;
+
+    // Debe llamarse dentro de la transacción que inserta o borra el favorito
+    public void increment(Long userId, String contentType) {
+        counterRepository.add(userId, contentType, 1);
+    }
+
+    public void decrement(Long userId, String contentType) {
+        counterRepository.add(userId, contentType, -1);
+    }
+
+    public void add(Long userId, String contentType, long delta) {
+        counterRepository.add(userId, contentType, delta);
+    }
+
+    public long count(Long userId) {
+        return counterRepository.sumByUserId(userId);
+    }
+
+    public long count(Long userId, String contentType) {
+        return counterRepository.sumByUserIdAndContentType(userId, contentType);
+    }
+
+    public void rebuild(Long userId) {
+        favoriteShards.forUser(userId, () -> transactionTemplate.executeWithoutResult(status -> {
+            counterRepository.deleteByUserId(userId);
+            counterRepository.insertFromFavoritesByUserId(userId);
+        }));
+    }
+
+    // Con shards, cada uno recalcula los suyos en paralelo (los contadores viven junto a sus favoritos)
+    @Scheduled(cron = "${favorites.counters.rebuild-cron:0 30 4 * * *}")
+    public void rebuildAll() {
+        int rows = favoriteShards.onAllShards(shard -> rebuildCurrent())
+                .stream().mapToInt(Integer::intValue).sum();
+        log.info("Contadores de favoritos recalculados: {} filas", rows);
+    }
+
+    // Primera ejecución sobre una base de datos existente: la tabla de contadores aún está vacía
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        favoriteShards.onAllShards(shard -> {
+            if (counterRepository.count() == 0 && favoriteRepository.count() > 0) {
+                log.info("Contadores de favoritos recalculados: {} filas", rebuildCurrent());
+            }
+            return null;
+        });
+    }
+
+    // Recorre los usuarios en tramos de id con una transacción corta por tramo (borrar + recontar), en lugar
+    // de un DELETE y un INSERT ... SELECT de toda la tabla que dejarían esperando a cada alta o baja
+    private int rebuildCurrent() {
+        int rows = 0;
+        Long after = 0L;
+        List<Long> userIds;
+        do {
+            userIds = counterRepository.findUserIdsAfter(after, rebuildBatch);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Long from = after;
+            Long last = userIds.get(userIds.size() - 1);
+            rows += transactionTemplate.execute(status -> {
+                counterRepository.deleteByUserIdRange(from, last);
+                return counterRepository.insertFromFavoritesByUserIdRange(from, last);
+            });
+            after = last;
+        } while (userIds.size() == rebuildBatch);
+        return rows;
+    }
+}
@@ -0,0 +1,195 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Conexiones SSE abiertas por usuario (una por pestaña). Mientras no hay nada que enviar la conexión es una
+// petición asíncrona del servlet sin hilo asignado, así miles de pestañas inactivas solo cuestan su socket.
+// Los envíos van en hilos virtuales: un cliente lento no retiene el hilo que hizo el commit. Cada pestaña
+// tiene su cola y un solo hilo a la vez la vacía, así los eventos llegan en el orden de los commits
+@Service
+public class FavoriteEventBroadcaster implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteEventBroadcaster.class);
+
+    public static final String EVENT_NAME = "favorite";
+    // Una pestaña que no consume tantos eventos se cierra; EventSource reconecta y vuelve a empezar
+    private static final int MAX_PENDING = 1_000;
+
+    private final Map<Long, Set<Subscriber>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder sent = new LongAdder();
+
+    @Value("${favorites.events.timeout:30m}")
+    private Duration timeout;
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // compute en lugar de computeIfAbsent: unsubscribe puede quitar el conjunto vacío a la vez
+        emitters.compute(userId, (id, set) -> {
+            Set<Subscriber> result = set != null ? set : new CopyOnWriteArraySet<>();
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // Primer envío para que el navegador reciba las cabeceras y dé la conexión por abierta
+        subscriber.enqueue(SseEmitter.event().comment("conectado"), false);
+        return emitter;
+    }
+
+    // Solo tras el commit: si la transacción se deshace las pestañas no deben enterarse de nada
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        Set<Subscriber> targets = emitters.get(event.userId());
+        if (targets == null) {
+            return;
+        }
+        Map<String, Object> data = payload(event);
+        for (Subscriber subscriber : targets) {
+            subscriber.enqueue(SseEmitter.event().name(EVENT_NAME).data(data), true);
+        }
+    }
+
+    // Comentario periódico: los proxies cierran las conexiones sin tráfico y así se detectan las pestañas cerradas
+    @Scheduled(fixedDelayString = "${favorites.events.heartbeat:25s}")
+    public void heartbeat() {
+        emitters.values().forEach(set -> set.forEach(subscriber ->
+                subscriber.enqueue(SseEmitter.event().comment("ping"), false)));
+    }
+
+    public int getSubscriberCount() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public int getSubscriberCount(Long userId) {
+        Set<Subscriber> set = emitters.get(userId);
+        return set == null ? 0 : set.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mangaverse.favorites.events.subscribers", this, FavoriteEventBroadcaster::getSubscriberCount)
+                .description("Pestañas conectadas al stream de favoritos")
+                .register(registry);
+        FunctionCounter.builder("mangaverse.favorites.events.sent", sent, LongAdder::sum)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        emitters.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        emitters.clear();
+        executor.shutdownNow();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        emitters.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // Cola de una pestaña: quien encola con la cola parada lanza el hilo que la vacía
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private record Pending(SseEmitter.SseEventBuilder event, boolean counted) {
+        }
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event, boolean counted) {
+            if (size.incrementAndGet() > MAX_PENDING) {
+                log.debug("Stream de favoritos del usuario {} cerrado: demasiados eventos pendientes", userId);
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            queue.add(new Pending(event, counted));
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Pending next;
+                while ((next = queue.poll()) != null) {
+                    size.decrementAndGet();
+                    if (send(next.event()) && next.counted()) {
+                        sent.increment();
+                    }
+                }
+                draining.set(false);
+                // Un evento encolado entre el último poll y soltar la marca no se queda sin enviar
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Pestaña cerrada o conexión ya completada
+                log.debug("Stream de favoritos del usuario {} cerrado: {}", userId, e.getMessage());
+                unsubscribe(this);
+                return false;
+            }
+        }
+    }
+
+    // Lo mismo que pinta una tarjeta de favorites.js, sin el id de usuario
+    private static Map<String, Object> payload(FavoriteChangedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("action", event.action());
+        data.put("contentId", event.contentId());
+        data.put("contentType", event.contentType());
+        if (FavoriteChangedEvent.ADDED.equals(event.action())) {
+            data.put("title", event.title());
+            data.put("imageUrl", event.imageUrl());
+            data.put("score", event.score());
+            data.put("year", event.year());
+        }
+        return data;
+    }
+}
@@ -1,78 +1,351 @@
 package com.manga.springboot.di.app.mangaverse.services;
 
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteImportDTO;
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteSyncOperationDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoritePageDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteSyncResultDTO;
 import com.manga.springboot.di.app.mangaverse.models.Favorite;
 import com.manga.springboot.di.app.mangaverse.models.User;
 import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
+// Tiempo de cada método público en mangaverse.service{class, method}
+@Timed("mangaverse.service")
 @Service
 public class FavoriteService {
     
+    private static final Logger log = LoggerFactory.getLogger(FavoriteService.class);
+    
     @Autowired
     private FavoriteRepository favoriteRepository;
     
+    @Autowired
+    private FavoriteTombstoneRepository favoriteTombstoneRepository;
+    
+    @Autowired
+    private FavoriteCache favoriteCache;
+    
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+    
+    // Altas y bajas para las pestañas abiertas del usuario (FavoriteEventBroadcaster, tras el commit)
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Cada operación de un usuario se ejecuta en su shard (si los hay); las transacciones piden la conexión
+    // en la primera sentencia, cuando el shard ya está fijado
+    @Autowired
+    private FavoriteShards favoriteShards;
+    
+    @Value("${favorites.sync.max-operations:500}")
+    private int syncMaxOperations;
+    
+    // Margen con el que se vuelven a enviar cambios anteriores al token: cubre las transacciones que
+    // hicieron commit después de leerse los cambios pero con una fecha anterior
+    @Value("${favorites.sync.overlap:5s}")
+    private Duration syncOverlap;
+    
+    @Value("${favorites.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+    
+    // Las lecturas readOnly van a la réplica cuando hay una configurada (ReadWriteRoutingConfig).
+    // El conjunto de FavoriteCache se carga siempre de la principal: luego se actualiza por incrementos
+    @Transactional(readOnly = true)
     public List<Favorite> getUserFavorites(User user) {
-        return favoriteRepository.findByUserOrderByAddedAtDesc(user);
+        return favoriteShards.forUser(user.getId(), () -> favoriteRepository.findByUserOrderByAddedAtDesc(user));
+    }
+    
+    // Página de favoritos (más recientes primero) a partir de un cursor "addedAt_id"
+    @Transactional(readOnly = true)
+    public FavoritePageDTO getFavoritesPage(User user, String cursor, int size) {
+        return favoriteShards.forUser(user.getId(), () -> findPage(user, cursor, size));
+    }
+    
+    private FavoritePageDTO findPage(User user, String cursor, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<FavoriteDTO> items;
+        
+        if (cursor == null || cursor.isBlank()) {
+            items = favoriteRepository.findFirstPage(user.getId(), limit);
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            LocalDateTime addedAt = LocalDateTime.parse(cursor.substring(0, separator));
+            Long id = Long.parseLong(cursor.substring(separator + 1));
+            items = favoriteRepository.findPageAfter(user.getId(), addedAt, id, limit);
+        }
+        
+        if (items.size() <= size) {
+            return new FavoritePageDTO(items, null);
+        }
+        
+        items = items.subList(0, size);
+        FavoriteDTO last = items.get(size - 1);
+        return new FavoritePageDTO(items, last.getAddedAt() + "_" + last.getId());
     }
     
+    @Transactional(readOnly = true)
+    public List<FavoriteDTO> searchFavorites(User user, FavoriteFilterDTO filter) {
+        return favoriteShards.forUser(user.getId(), () -> favoriteRepository.search(user.getId(), filter));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Favorite> getUserFavoritesByType(User user, String contentType) {
-        return favoriteRepository.findByUserAndContentTypeOrderByAddedAtDesc(user, contentType);
+        return favoriteShards.forUser(user.getId(),
+                () -> favoriteRepository.findByUserAndContentTypeOrderByAddedAtDesc(user, contentType));
     }
     
     public boolean isFavorite(User user, String contentId, String contentType) {
-        return favoriteRepository.existsByUserAndContentIdAndContentType(user, contentId, contentType);
+        return favoriteCache.contains(user.getId(), contentType, contentId);
     }
     
-    @Transactional
-    public Favorite addFavorite(User user, String contentId, String contentType, 
+    // Estado de favorito de muchos contenidos a la vez (claves "tipo:id"), resuelto con el conjunto en memoria
+    public Map<String, Boolean> checkFavorites(User user, Collection<String> keys) {
+        Set<String> favoriteKeys = favoriteCache.getKeys(user.getId());
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            result.put(key, favoriteKeys.contains(key));
+        }
+        return result;
+    }
+    
+    // Alta suelta: el mismo INSERT IGNORE que toggle, bajo el cerrojo del usuario. Devuelve si se añadió
+    public boolean addFavorite(User user, String contentId, String contentType,
                                String title, String imageUrl, Double score, Integer year) {
+        return favoriteCache.withUserLock(user.getId(), () -> favoriteShards.forUser(user.getId(),
+                () -> insertKey(user.getId(), contentId, contentType, title, imageUrl, score, year)));
+    }
+    
+    // Alta masiva (p. ej. una importación): descarta los que ya existen y escribe el resto en lotes JDBC.
+    // Devuelve cuántos favoritos se insertaron
+    public int addFavorites(User user, List<FavoriteImportDTO> items) {
+        return favoriteCache.withUserLock(user.getId(), () -> favoriteShards.forUser(user.getId(),
+                () -> transactionTemplate.execute(status -> {
+            Set<String> existing = favoriteCache.getKeys(user.getId());
+            Set<String> seen = new HashSet<>();
+            List<Favorite> toInsert = new ArrayList<>();
+            Map<String, Long> perType = new HashMap<>();
+            
+            for (FavoriteImportDTO item : items) {
+                String key = FavoriteCache.key(item.getContentType(), item.getContentId());
+                if (existing.contains(key) || !seen.add(key)) {
+                    continue;
+                }
+                toInsert.add(new Favorite(user, item.getContentId(), item.getContentType(),
+                        item.getTitle(), item.getImageUrl(), item.getScore(), item.getYear()));
+                perType.merge(item.getContentType(), 1L, Long::sum);
+            }
+            
+            favoriteRepository.bulkInsert(toInsert);
+            readYourWrites.recordWrite(user.getId());
+            perType.forEach((type, count) -> favoriteCounterService.add(user.getId(), type, count));
+            toInsert.forEach(f -> {
+                favoriteCache.added(user.getId(), f.getContentType(), f.getContentId());
+                eventPublisher.publishEvent(FavoriteChangedEvent.added(user.getId(), f.getContentId(),
+                        f.getContentType(), f.getTitle(), f.getImageUrl(), f.getScore(), f.getYear()));
+            });
+            return toInsert.size();
+        })));
+    }
+    
+    public void removeFavorite(User user, String contentId, String contentType) {
+        favoriteCache.withUserLock(user.getId(),
+                () -> favoriteShards.forUser(user.getId(), () -> deleteKey(user.getId(), contentId, contentType)));
+    }
+    
+    // Un clic = un DELETE condicional y, si no borró nada, un INSERT IGNORE. Devuelve el estado resultante.
+    // Cada paso es su propia transacción (con su contador): cualquier intercalado con otro nodo deja la base de datos
+    // en un estado válido; la caché de los demás nodos lo refleja al caducar (favorites.cache.ttl)
+    public boolean toggleFavorite(User user, String contentId, String contentType,
+                                  String title, String imageUrl, Double score, Integer year) {
         
-        // Verificar si ya existe
-        Optional<Favorite> existing = favoriteRepository.findByUserAndContentIdAndContentType(user, contentId, contentType);
-        if (existing.isPresent()) {
-            return existing.get();
+        return favoriteCache.withUserLock(user.getId(), () -> favoriteShards.forUser(user.getId(), () -> {
+            if (deleteKey(user.getId(), contentId, contentType)) {
+                return false;
+            }
+            
+            insertKey(user.getId(), contentId, contentType, title, imageUrl, score, year);
+            return true;
+        }));
+    }
+    
+    // Sincronización de los favoritos guardados sin conexión (localStorage): aplica las operaciones del lote en
+    // una transacción y devuelve solo lo que cambió desde el token del cliente. Sin token, o con uno más antiguo
+    // que las lápidas guardadas, devuelve la lista completa (reset)
+    public FavoriteSyncResultDTO sync(User user, String since, List<FavoriteSyncOperationDTO> operations) {
+        if (operations.size() > syncMaxOperations) {
+            throw new IllegalArgumentException("Demasiadas operaciones en un lote (máximo " + syncMaxOperations + ")");
         }
+        LocalDateTime now = Favorite.now();
+        LocalDateTime from = parseSyncToken(since);
+        boolean reset = from == null || from.isBefore(now.minus(tombstoneRetention));
         
-        // Crear nuevo favorito
-        Favorite favorite = new Favorite();
-        favorite.setUser(user);
-        favorite.setContentId(contentId);
-        favorite.setContentType(contentType);
-        favorite.setTitle(title);
-        favorite.setImageUrl(imageUrl);
-        favorite.setScore(score);
-        favorite.setYear(year);
-        
-        return favoriteRepository.save(favorite);
+        return favoriteCache.withUserLock(user.getId(), () -> favoriteShards.forUser(user.getId(),
+                () -> transactionTemplate.execute(status -> {
+            int applied = applyOperations(user.getId(), operations);
+            List<FavoriteChangeDTO> changes = reset
+                    ? favoriteRepository.findChangedSince(user.getId(), LocalDateTime.of(1970, 1, 1, 0, 0))
+                    : changesSince(user.getId(), from.minus(syncOverlap));
+            return new FavoriteSyncResultDTO(changes, now.toString(), reset, applied);
+        })));
     }
     
-    @Transactional
-    public void removeFavorite(User user, String contentId, String contentType) {
-        favoriteRepository.deleteByUserAndContentIdAndContentType(user, contentId, contentType);
+    private static LocalDateTime parseSyncToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(token);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Token de sincronización inválido: " + token);
+        }
     }
     
-    @Transactional
-    public void toggleFavorite(User user, String contentId, String contentType,
-                              String title, String imageUrl, Double score, Integer year) {
+    // Last-writer-wins por clave: la operación del cliente se aplica solo si es posterior al último cambio del
+    // servidor (updatedAt del favorito o deletedAt de su lápida). Dentro del lote cuenta la última de cada clave
+    private int applyOperations(Long userId, List<FavoriteSyncOperationDTO> operations) {
+        if (operations.isEmpty()) {
+            return 0;
+        }
+        Map<String, FavoriteSyncOperationDTO> latest = new LinkedHashMap<>();
+        for (FavoriteSyncOperationDTO operation : operations) {
+            if (operation.getContentId() == null || operation.getContentType() == null || operation.getTimestamp() == null
+                    || !(FavoriteSyncOperationDTO.ADD.equals(operation.getAction())
+                            || FavoriteSyncOperationDTO.REMOVE.equals(operation.getAction()))) {
+                throw new IllegalArgumentException("Operación de sincronización incompleta");
+            }
+            latest.merge(FavoriteCache.key(operation.getContentType(), operation.getContentId()), operation,
+                    (previous, next) -> next.getTimestamp().isBefore(previous.getTimestamp()) ? previous : next);
+        }
         
-        if (isFavorite(user, contentId, contentType)) {
-            removeFavorite(user, contentId, contentType);
-        } else {
-            addFavorite(user, contentId, contentType, title, imageUrl, score, year);
+        Set<String> contentIds = new HashSet<>();
+        latest.values().forEach(operation -> contentIds.add(operation.getContentId()));
+        Map<String, FavoriteChangeDTO> current = new HashMap<>();
+        mergeLatest(current, favoriteTombstoneRepository.findByContentIds(userId, contentIds));
+        mergeLatest(current, favoriteRepository.findByContentIds(userId, contentIds));
+        
+        int applied = 0;
+        for (Map.Entry<String, FavoriteSyncOperationDTO> entry : latest.entrySet()) {
+            FavoriteSyncOperationDTO operation = entry.getValue();
+            FavoriteChangeDTO state = current.get(entry.getKey());
+            LocalDateTime at = LocalDateTime.ofInstant(operation.getTimestamp(), ZoneOffset.UTC);
+            if (state != null && !at.isAfter(state.getChangedAt())) {
+                continue;
+            }
+            boolean present = state != null && state.isAdded();
+            if (FavoriteSyncOperationDTO.ADD.equals(operation.getAction()) && !present
+                    && insertKey(userId, operation.getContentId(), operation.getContentType(), operation.getTitle(),
+                            operation.getImageUrl(), operation.getScore(), operation.getYear())) {
+                applied++;
+            } else if (FavoriteSyncOperationDTO.REMOVE.equals(operation.getAction()) && present
+                    && deleteKey(userId, operation.getContentId(), operation.getContentType())) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+    
+    // Altas y bajas desde since; si un contenido se borró y se volvió a añadir, queda solo el último cambio
+    private List<FavoriteChangeDTO> changesSince(Long userId, LocalDateTime since) {
+        Map<String, FavoriteChangeDTO> changes = new HashMap<>();
+        mergeLatest(changes, favoriteTombstoneRepository.findChangedSince(userId, since));
+        mergeLatest(changes, favoriteRepository.findChangedSince(userId, since));
+        List<FavoriteChangeDTO> result = new ArrayList<>(changes.values());
+        result.sort(Comparator.comparing(FavoriteChangeDTO::getChangedAt));
+        return result;
+    }
+    
+    // En empate gana el favorito vigente (se fusiona después de las lápidas)
+    private static void mergeLatest(Map<String, FavoriteChangeDTO> target, List<FavoriteChangeDTO> changes) {
+        for (FavoriteChangeDTO change : changes) {
+            target.merge(FavoriteCache.key(change.getContentType(), change.getContentId()), change,
+                    (previous, next) -> next.getChangedAt().isBefore(previous.getChangedAt()) ? previous : next);
         }
     }
     
+    // Las lápidas solo hacen falta mientras algún cliente pueda tener un token anterior
+    @Scheduled(cron = "${favorites.sync.purge-cron:0 30 4 * * *}")
+    public void purgeTombstones() {
+        LocalDateTime cutoff = Favorite.now().minus(tombstoneRetention);
+        int purged = favoriteShards.onAllShards(shard -> favoriteTombstoneRepository.deleteOlderThan(cutoff))
+                .stream().mapToInt(Integer::intValue).sum();
+        log.info("Lápidas de favoritos purgadas: {}", purged);
+    }
+    
+    @Transactional(readOnly = true)
     public Long countUserFavorites(User user) {
-        return favoriteRepository.countByUser(user);
+        return favoriteShards.forUser(user.getId(), () -> favoriteCounterService.count(user.getId()));
     }
     
+    @Transactional(readOnly = true)
     public Long countUserFavoritesByType(User user, String contentType) {
-        return favoriteRepository.countByUserAndContentType(user, contentType);
+        return favoriteShards.forUser(user.getId(), () -> favoriteCounterService.count(user.getId(), contentType));
+    }
+    
+    private boolean deleteKey(Long userId, String contentId, String contentType) {
+        return transactionTemplate.execute(status -> {
+            if (favoriteRepository.deleteByKey(userId, contentId, contentType) == 0) {
+                return false;
+            }
+            favoriteCounterService.decrement(userId, contentType);
+            favoriteTombstoneRepository.record(userId, contentId, contentType, Favorite.now());
+            readYourWrites.recordWrite(userId);
+            favoriteCache.removed(userId, contentType, contentId);
+            eventPublisher.publishEvent(FavoriteChangedEvent.removed(userId, contentId, contentType));
+            return true;
+        });
+    }
+    
+    private boolean insertKey(Long userId, String contentId, String contentType,
+                              String title, String imageUrl, Double score, Integer year) {
+        return transactionTemplate.execute(status -> {
+            Long id = favoriteRepository.nextId();
+            if (favoriteRepository.insertIfAbsent(id, userId, contentId, contentType, title, imageUrl, score, year, Favorite.now()) == 0) {
+                return false;
+            }
+            favoriteCounterService.increment(userId, contentType);
+            favoriteCache.added(userId, contentType, contentId);
+            readYourWrites.recordWrite(userId);
+            eventPublisher.publishEvent(FavoriteChangedEvent.added(userId, contentId, contentType,
+                    title, imageUrl, score, year));
+            return true;
+        });
     }
     
 }
\ No newline at end of file
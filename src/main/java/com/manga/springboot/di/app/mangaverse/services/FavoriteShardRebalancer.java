@@ -0,0 +1,108 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Herramienta offline: lleva los favoritos (con contadores y lápidas) de cada usuario al shard que le toca con la lista
+// actual de shards, por ejemplo después de añadir uno, o desde la base principal al activar el reparto.
+// Se lanza con --favorites.shards.rebalance=true: la aplicación arranca sin servidor web ni tareas programadas
+// (RebalanceModeEnvironmentPostProcessor) y al terminar se cierra.
+// Cada usuario se copia primero (INSERT IGNORE) y luego se borra del origen: si se corta, basta con repetirlo
+@Component
+public class FavoriteShardRebalancer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteShardRebalancer.class);
+
+    private static final String USERS = "SELECT user_id FROM favorites UNION SELECT user_id FROM favorite_counters "
+            + "UNION SELECT user_id FROM favorite_tombstones";
+    private static final String TOMBSTONE_COLUMNS = "user_id, content_id, content_type, deleted_at";
+    private static final String COLUMNS = "id, user_id, content_id, content_type, title, image_url, score, year, added_at, updated_at";
+
+    @Autowired
+    private FavoriteShards favoriteShards;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${favorites.shards.rebalance:false}")
+    private boolean rebalanceOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!rebalanceOnStartup) {
+            return;
+        }
+        log.info("Rebalanceo terminado: {} usuarios movidos", rebalance());
+        System.exit(SpringApplication.exit(context));
+    }
+
+    // Devuelve cuántos usuarios cambiaron de base de datos
+    public int rebalance() {
+        if (!favoriteShards.isEnabled()) {
+            return 0;
+        }
+        // Sin shard fijado, el DataSource de la aplicación es la base principal
+        int moved = moveAll(dataSource, null);
+        moved += favoriteShards.onAllShards(shard -> moveAll(favoriteShards.dataSource(shard), shard))
+                .stream().mapToInt(Integer::intValue).sum();
+        return moved;
+    }
+
+    private int moveAll(DataSource source, Integer shard) {
+        int moved = 0;
+        for (Long userId : new JdbcTemplate(source).queryForList(USERS, Long.class)) {
+            int target = favoriteShards.shardOf(userId);
+            if (shard == null || shard != target) {
+                move(userId, source, favoriteShards.dataSource(target));
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private void move(Long userId, DataSource source, DataSource target) {
+        JdbcTemplate from = new JdbcTemplate(source);
+        JdbcTemplate to = new JdbcTemplate(target);
+        List<Object[]> rows = from.query("SELECT " + COLUMNS + " FROM favorites WHERE user_id = ?",
+                (rs, i) -> {
+                    Object[] row = new Object[10];
+                    for (int column = 0; column < row.length; column++) {
+                        row[column] = rs.getObject(column + 1);
+                    }
+                    return row;
+                }, userId);
+        List<Object[]> tombstones = from.query("SELECT " + TOMBSTONE_COLUMNS + " FROM favorite_tombstones WHERE user_id = ?",
+                (rs, i) -> new Object[] { rs.getObject(1), rs.getObject(2), rs.getObject(3), rs.getObject(4) }, userId);
+
+        new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(status -> {
+            to.batchUpdate("INSERT IGNORE INTO favorites (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            to.batchUpdate("INSERT IGNORE INTO favorite_tombstones (" + TOMBSTONE_COLUMNS + ") VALUES (?, ?, ?, ?)", tombstones);
+            to.update("DELETE FROM favorite_counters WHERE user_id = ?", userId);
+            to.update("INSERT INTO favorite_counters (user_id, content_type, total) "
+                    + "SELECT user_id, content_type, COUNT(*) FROM favorites WHERE user_id = ? GROUP BY user_id, content_type",
+                    userId);
+        });
+        new TransactionTemplate(new DataSourceTransactionManager(source)).executeWithoutResult(status -> {
+            from.update("DELETE FROM favorites WHERE user_id = ?", userId);
+            from.update("DELETE FROM favorite_counters WHERE user_id = ?", userId);
+            from.update("DELETE FROM favorite_tombstones WHERE user_id = ?", userId);
+        });
+        log.debug("Usuario {}: {} favoritos movidos", userId, rows.size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Reparto de favorites y favorite_counters en N bases de datos según el id de usuario (ver ShardingConfig).
+// forUser() fija el shard del usuario en el hilo y las conexiones que se pidan dentro van a esa base; las
+// consultas entre usuarios se lanzan en todos los shards a la vez con onAllShards(). Sin shards configurados
+// todo se ejecuta en la base principal y estas llamadas no hacen nada
+public class FavoriteShards implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final List<DataSource> dataSources;
+
+    public FavoriteShards(List<DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    // Shard fijado en el hilo actual; null = base principal
+    public static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    public boolean isEnabled() {
+        return !dataSources.isEmpty();
+    }
+
+    public int shardCount() {
+        return dataSources.size();
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int shardOf(Long userId) {
+        return shardOf(userId, dataSources.size());
+    }
+
+    // Jump consistent hash (Lamping y Veach): al pasar de N a N+1 shards solo cambia de sitio 1/(N+1) de los usuarios
+    static int shardOf(long userId, int shards) {
+        long key = userId;
+        long b = -1;
+        long j = 0;
+        while (j < shards) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    public <T> T forUser(Long userId, Supplier<T> work) {
+        if (!isEnabled()) {
+            return work.get();
+        }
+        return inShard(shardOf(userId), work);
+    }
+
+    public void forUser(Long userId, Runnable work) {
+        forUser(userId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T inShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    // Ejecuta work en cada shard en paralelo (un hilo virtual por shard) y devuelve los resultados en orden de shard.
+    // Sin shards se ejecuta una vez en la base principal, con null como número de shard
+    public <T> List<T> onAllShards(Function<Integer, T> work) {
+        if (!isEnabled()) {
+            return Collections.singletonList(work.apply(null));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<T>> futures = new ArrayList<>();
+            for (int shard = 0; shard < dataSources.size(); shard++) {
+                int target = shard;
+                futures.add(CompletableFuture.supplyAsync(() -> inShard(target, () -> work.apply(target)), executor));
+            }
+            return futures.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
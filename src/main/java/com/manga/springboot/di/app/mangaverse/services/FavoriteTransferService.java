@@ -0,0 +1,320 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteImportDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteImportResultDTO;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Exportación e importación de la lista de favoritos en streaming. La exportación recorre un cursor y escribe
+// cada fila según llega; la importación lee el fichero por partes y guarda en lotes con FavoriteService.addFavorites.
+// En ambos sentidos la memoria no depende del tamaño de la lista
+@Service
+public class FavoriteTransferService {
+
+    public static final List<String> FORMATS = List.of("csv", "json");
+
+    private static final List<String> COLUMNS = List.of("contentId", "contentType", "title", "imageUrl", "score", "year", "addedAt");
+    // Columnas de texto de favorites (VARCHAR(255))
+    private static final int MAX_LENGTH = 255;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteShards favoriteShards;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${favorites.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${favorites.import.batch-size:500}")
+    private int batchSize;
+
+    // Se llama desde el StreamingResponseBody: la transacción (y el cursor) duran lo que tarda en salir la respuesta
+    @Transactional(readOnly = true)
+    public void export(Long userId, String format, OutputStream out) {
+        favoriteShards.forUser(userId, () -> {
+            try (Stream<FavoriteDTO> favorites = favoriteRepository.streamByUserId(userId, fetchSize)) {
+                if ("json".equals(format)) {
+                    writeJson(favorites.iterator(), out);
+                } else {
+                    writeCsv(favorites.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public FavoriteImportResultDTO importFavorites(User user, String format, InputStream in) throws IOException {
+        FavoriteImportResultDTO result = new FavoriteImportResultDTO();
+        List<FavoriteImportDTO> batch = new ArrayList<>(batchSize);
+        if ("json".equals(format)) {
+            readJson(user, in, batch, result);
+        } else {
+            readCsv(user, in, batch, result);
+        }
+        flush(user, batch, result);
+        return result;
+    }
+
+    private void writeCsv(Iterator<FavoriteDTO> favorites, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        while (favorites.hasNext()) {
+            FavoriteDTO favorite = favorites.next();
+            writer.write(csv(favorite.getContentId()));
+            writer.write(',');
+            writer.write(csv(favorite.getContentType()));
+            writer.write(',');
+            writer.write(csv(favorite.getTitle()));
+            writer.write(',');
+            writer.write(csv(favorite.getImageUrl()));
+            writer.write(',');
+            writer.write(favorite.getScore() != null ? favorite.getScore().toString() : "");
+            writer.write(',');
+            writer.write(favorite.getYear() != null ? favorite.getYear().toString() : "");
+            writer.write(',');
+            writer.write(favorite.getAddedAt() != null ? utc(favorite.getAddedAt()) : "");
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // added_at está en UTC (Favorite.now()): se exporta como instante ISO-8601 con la Z
+    private static String utc(LocalDateTime at) {
+        return at.toInstant(ZoneOffset.UTC).toString();
+    }
+
+    private void writeJson(Iterator<FavoriteDTO> favorites, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        while (favorites.hasNext()) {
+            FavoriteDTO favorite = favorites.next();
+            generator.writeStartObject();
+            generator.writeStringField("contentId", favorite.getContentId());
+            generator.writeStringField("contentType", favorite.getContentType());
+            generator.writeStringField("title", favorite.getTitle());
+            generator.writeStringField("imageUrl", favorite.getImageUrl());
+            generator.writeObjectField("score", favorite.getScore());
+            generator.writeObjectField("year", favorite.getYear());
+            generator.writeStringField("addedAt", favorite.getAddedAt() != null ? utc(favorite.getAddedAt()) : null);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    // Comillas solo cuando hacen falta (comas, comillas o saltos de línea), duplicando las comillas internas
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void readCsv(User user, InputStream in, List<FavoriteImportDTO> batch, FavoriteImportResultDTO result)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            return;
+        }
+        // Las columnas se buscan por nombre: basta con contentId y contentType, en cualquier orden
+        int[] index = new int[COLUMNS.size()];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = header.indexOf(COLUMNS.get(i));
+        }
+        if (index[0] < 0 || index[1] < 0) {
+            throw new IllegalArgumentException("El CSV necesita las columnas contentId y contentType");
+        }
+
+        int line = 1;
+        List<String> record;
+        while ((record = readRecord(reader)) != null) {
+            line++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                add(user, item(column(record, index[0]), column(record, index[1]), column(record, index[2]),
+                        column(record, index[3]), column(record, index[4]), column(record, index[5])), batch, result);
+            } catch (IllegalArgumentException e) {
+                result.addInvalid("Línea " + line + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Un registro CSV (RFC 4180): un campo entre comillas puede contener comas y saltos de línea
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String column(List<String> record, int index) {
+        return index >= 0 && index < record.size() ? record.get(index) : null;
+    }
+
+    // Array JSON leído elemento a elemento: solo hay en memoria el objeto que se está procesando
+    private void readJson(User user, InputStream in, List<FavoriteImportDTO> batch, FavoriteImportResultDTO result)
+            throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("El JSON debe ser una lista de favoritos");
+            }
+            int element = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                element++;
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    if (node == null || !node.isObject()) {
+                        throw new IllegalArgumentException("no es un objeto");
+                    }
+                    add(user, item(text(node, "contentId"), text(node, "contentType"), text(node, "title"),
+                            text(node, "imageUrl"), text(node, "score"), text(node, "year")), batch, result);
+                } catch (IllegalArgumentException e) {
+                    result.addInvalid("Elemento " + element + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static FavoriteImportDTO item(String contentId, String contentType, String title,
+                                          String imageUrl, String score, String year) {
+        if (contentId == null || contentId.isBlank()) {
+            throw new IllegalArgumentException("falta contentId");
+        }
+        // Lo que no cabe en la columna es una fila no válida, no un duplicado al fallar el INSERT
+        checkLength("contentId", contentId.trim());
+        checkLength("title", title);
+        checkLength("imageUrl", imageUrl);
+        String type = contentType == null ? "" : contentType.trim().toLowerCase(Locale.ROOT);
+        if (!MediaDetailsService.KINDS.contains(type)) {
+            throw new IllegalArgumentException("tipo no válido: " + contentType);
+        }
+        try {
+            return new FavoriteImportDTO(contentId.trim(), type, blankToNull(title), blankToNull(imageUrl),
+                    blankToNull(score) != null ? Double.valueOf(score.trim()) : null,
+                    blankToNull(year) != null ? Integer.valueOf(year.trim()) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("puntuación o año no numérico");
+        }
+    }
+
+    private static void checkLength(String field, String value) {
+        if (value != null && value.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(field + " demasiado largo (máximo " + MAX_LENGTH + " caracteres)");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private void add(User user, FavoriteImportDTO item, List<FavoriteImportDTO> batch, FavoriteImportResultDTO result) {
+        batch.add(item);
+        if (batch.size() >= batchSize) {
+            flush(user, batch, result);
+        }
+    }
+
+    // addFavorites descarta lo que ya está en la lista; si aun así salta la restricción única (otra pestaña
+    // añadió alguno a la vez) el lote se repite de uno en uno y los que choquen cuentan como duplicados
+    private void flush(User user, List<FavoriteImportDTO> batch, FavoriteImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int inserted = favoriteService.addFavorites(user, batch);
+            result.addImported(inserted);
+            result.addDuplicates(batch.size() - inserted);
+        } catch (DataIntegrityViolationException e) {
+            for (FavoriteImportDTO item : batch) {
+                try {
+                    int inserted = favoriteService.addFavorites(user, List.of(item));
+                    result.addImported(inserted);
+                    result.addDuplicates(1 - inserted);
+                } catch (DataIntegrityViolationException duplicate) {
+                    result.addDuplicates(1);
+                }
+            }
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,401 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Caché en disco de las portadas. Los ficheros se nombran por el SHA-256 de su contenido
+// (blobs/ab/abcd...), y urls/<sha256 de la url> apunta al contenido descargado, así dos urls con la misma
+// imagen comparten fichero y el hash sirve directamente como ETag fuerte.
+// Las miniaturas se generan una vez por tamaño junto al original
+@Service
+public class ImageCacheService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageCacheService.class);
+
+    // Anchos fijos de las miniaturas; "original" sirve la imagen tal cual
+    public static final Map<String, Integer> SIZES = Map.of("small", 160, "medium", 320);
+    public static final String ORIGINAL = "original";
+
+    private static final int MAX_IMAGE_BYTES = 10 * 1024 * 1024;
+    private static final float JPEG_QUALITY = 0.85f;
+    // No se expulsan ficheros servidos hace menos de esto: puede que Tomcat aún los esté enviando.
+    // El último acceso se lleva en memoria; la fecha de modificación solo se refresca cada TOUCH_INTERVAL
+    // y sirve para ordenar la expulsión (también tras un reinicio)
+    private static final Duration EVICTION_GRACE = Duration.ofMinutes(1);
+    private static final Duration TOUCH_INTERVAL = Duration.ofHours(1);
+    private static final int MAX_TRACKED = 100_000;
+
+    public record CachedImage(Path file, String etag, String contentType, long length) {
+    }
+
+    private final RestClient restClient;
+    private final Path blobs;
+    private final Path urls;
+    private final long maxBytes;
+    private final List<String> allowedHosts;
+
+    private final AtomicLong totalBytes = new AtomicLong();
+    // url -> hash del contenido, para no leer el enlace de urls/ en cada petición
+    private final Cache<String, String> knownHashes = Caffeine.newBuilder().maximumSize(MAX_TRACKED).build();
+    private final Cache<Path, Boolean> recentlyServed = Caffeine.newBuilder()
+            .expireAfterWrite(EVICTION_GRACE)
+            .maximumSize(MAX_TRACKED)
+            .build();
+    private final ConcurrentHashMap<String, CompletableFuture<String>> downloads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, CompletableFuture<Path>> thumbnails = new ConcurrentHashMap<>();
+
+    public ImageCacheService(RestClient.Builder restClientBuilder,
+            @Value("${images.cache.dir:${java.io.tmpdir}/mangaverse-images}") Path dir,
+            @Value("${images.cache.max-size:512MB}") DataSize maxSize,
+            @Value("${images.allowed-hosts:cdn.myanimelist.net}") List<String> allowedHosts) throws IOException {
+        this.restClient = restClientBuilder.build();
+        this.blobs = Files.createDirectories(dir.resolve("blobs"));
+        this.urls = Files.createDirectories(dir.resolve("urls"));
+        this.maxBytes = maxSize.toBytes();
+        this.allowedHosts = allowedHosts.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+
+        try (Stream<Path> files = Files.walk(blobs)) {
+            totalBytes.set(files.filter(Files::isRegularFile).mapToLong(ImageCacheService::sizeOf).sum());
+        }
+    }
+
+    public CachedImage getImage(String url, String size) {
+        if (!ORIGINAL.equals(size) && !SIZES.containsKey(size)) {
+            throw new IllegalArgumentException("Tamaño de imagen no válido: " + size);
+        }
+        URI uri = validate(url);
+
+        String hash = knownHashes.getIfPresent(uri.toString());
+        if (hash == null || !Files.exists(blobPath(hash, ORIGINAL))) {
+            hash = coalesce(downloads, uri.toString(), () -> contentHash(uri));
+            knownHashes.put(uri.toString(), hash);
+        }
+        String contentHash = hash;
+        Path original = blobPath(hash, ORIGINAL);
+        recentlyServed.put(original, Boolean.TRUE);
+        Path file = ORIGINAL.equals(size)
+                ? original
+                : coalesce(thumbnails, blobPath(hash, size), () -> thumbnail(original, blobPath(contentHash, size), SIZES.get(size)));
+
+        recentlyServed.put(file, Boolean.TRUE);
+        touch(file);
+        String contentType = file.equals(original) ? sniffContentType(original) : "image/jpeg";
+        String etag = "\"" + hash + "-" + (file.equals(original) ? ORIGINAL : size) + "\"";
+        return new CachedImage(file, etag, contentType, sizeOf(file));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mangaverse.images.cache.size", totalBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    // Solo se descargan imágenes de los hosts permitidos (evita usar el proxy para llegar a cualquier url)
+    private URI validate(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("URL de imagen no válida", e);
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("https") && !scheme.equals("http")) {
+            throw new IllegalArgumentException("Esquema no permitido: " + scheme);
+        }
+        if (allowedHosts.stream().noneMatch(allowed -> host.equals(allowed) || host.endsWith("." + allowed))) {
+            throw new IllegalArgumentException("Host no permitido: " + host);
+        }
+        return uri;
+    }
+
+    private String contentHash(URI uri) {
+        Path link = urls.resolve(sha256(uri.toString()));
+        try {
+            if (Files.exists(link)) {
+                String hash = Files.readString(link).trim();
+                if (Files.exists(blobPath(hash, ORIGINAL))) {
+                    return hash;
+                }
+            }
+
+            byte[] body = download(uri);
+            String hash = sha256(body);
+            Path original = blobPath(hash, ORIGINAL);
+            if (!Files.exists(original)) {
+                writeAtomically(original, body);
+                added(body.length);
+            }
+            writeAtomically(link, hash.getBytes(StandardCharsets.UTF_8));
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] download(URI uri) {
+        return restClient.get().uri(uri).exchange((request, response) -> {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new IllegalStateException("La imagen respondió " + response.getStatusCode().value());
+            }
+            String type = response.getHeaders().getContentType() == null ? "" : response.getHeaders().getContentType().toString();
+            if (!type.startsWith("image/")) {
+                throw new IllegalStateException("La respuesta no es una imagen: " + type);
+            }
+            try (InputStream in = response.getBody()) {
+                byte[] body = in.readNBytes(MAX_IMAGE_BYTES + 1);
+                if (body.length > MAX_IMAGE_BYTES) {
+                    throw new IllegalStateException("Imagen demasiado grande");
+                }
+                return body;
+            }
+        });
+    }
+
+    // Si la imagen ya es más estrecha que la miniatura (o ImageIO no sabe leerla) se sirve el original
+    private Path thumbnail(Path original, Path target, int width) {
+        try {
+            if (Files.exists(target)) {
+                return target;
+            }
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null || source.getWidth() <= width) {
+                return original;
+            }
+
+            BufferedImage scaled = scale(source, width);
+            Path tmp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+            try {
+                writeJpeg(scaled, tmp);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            added(sizeOf(target));
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reducción por pasos de la mitad: con un único paso bilineal las portadas grandes quedan con dientes de sierra
+    private static BufferedImage scale(BufferedImage source, int width) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+
+        do {
+            w = Math.max(width, w / 2);
+            h = w == width ? targetHeight : Math.max(targetHeight, h / 2);
+
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, w, h);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (w > width);
+
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private void added(long bytes) {
+        if (totalBytes.addAndGet(bytes) > maxBytes) {
+            evict();
+        }
+    }
+
+    // Expulsa los ficheros usados hace más tiempo (la fecha de modificación hace de último acceso)
+    // hasta bajar al 90 % del máximo, saltándose los recién servidos
+    private synchronized void evict() {
+        long target = maxBytes * 9 / 10;
+        if (totalBytes.get() <= target) {
+            return;
+        }
+        Instant recent = Instant.now().minus(EVICTION_GRACE);
+
+        try (Stream<Path> files = Files.walk(blobs)) {
+            List<Path> candidates = files.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparing(ImageCacheService::lastModified))
+                    .toList();
+
+            int evicted = 0;
+            for (Path file : candidates) {
+                if (totalBytes.get() <= target || lastModified(file).toInstant().isAfter(recent)) {
+                    break;
+                }
+                if (recentlyServed.getIfPresent(file) != null) {
+                    continue;
+                }
+                long size = sizeOf(file);
+                if (Files.deleteIfExists(file)) {
+                    totalBytes.addAndGet(-size);
+                    evicted++;
+                }
+            }
+            log.info("Caché de imágenes: {} ficheros expulsados, {} bytes en disco", evicted, totalBytes.get());
+        } catch (IOException e) {
+            log.warn("No se pudo limpiar la caché de imágenes: {}", e.getMessage());
+        }
+    }
+
+    // Una sola descarga o miniatura en curso por clave: el resto de peticiones esperan a la misma
+    private static <K, V> V coalesce(ConcurrentHashMap<K, CompletableFuture<V>> inFlight, K key, Supplier<V> work) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            V value = work.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Path blobPath(String hash, String size) {
+        String name = ORIGINAL.equals(size) ? hash : hash + "-" + SIZES.get(size) + ".jpg";
+        return blobs.resolve(hash.substring(0, 2)).resolve(name);
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), "img", ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            if (lastModified(file).toInstant().isBefore(Instant.now().minus(TOUCH_INTERVAL))) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            }
+        } catch (IOException e) {
+            // Solo afecta al orden de expulsión
+        }
+    }
+
+    private static String sniffContentType(Path file) {
+        byte[] head = new byte[12];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read = in.readNBytes(head, 0, head.length);
+            if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8) return "image/jpeg";
+            if (read >= 4 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') return "image/png";
+            if (read >= 3 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F') return "image/gif";
+            if (read >= 12 && head[0] == 'R' && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "image/webp";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "application/octet-stream";
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String text) {
+        return sha256(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import java.util.Arrays;
+
+// Mapa int -> int con direccionamiento abierto (sondeo lineal) sobre dos arrays: sin Integer ni nodos por
+// entrada, así una fila de la matriz de co-ocurrencias ocupa 8 bytes por vecino. Las claves deben ser >= 0;
+// una entrada que llega a 0 se borra. No es seguro para varios hilos: quien lo use debe sincronizarlo
+public class IntIntMap {
+
+    private static final int FREE = -1;
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntMap() {
+        this(4);
+    }
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    public int get(int key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    // Suma delta al valor de la clave (0 si no estaba) y devuelve el resultado
+    public int addTo(int key, int delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Clave negativa: " + key);
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                int value = values[slot] + delta;
+                if (value == 0) {
+                    removeSlot(slot);
+                } else {
+                    values[slot] = value;
+                }
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        // Factor de carga máximo 0,5: las búsquedas fallidas, las más frecuentes, siguen siendo cortas
+        if (++size > keys.length / 2) {
+            resize(keys.length * 2);
+        }
+        return delta;
+    }
+
+    public int remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int value = values[slot];
+        removeSlot(slot);
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Borrado por desplazamiento hacia atrás: sin marcas de borrado que alarguen las búsquedas
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = mix(keys[next]) & mask;
+            // La entrada de next puede ocupar el hueco si su posición ideal no está entre el hueco y ella
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Los ids de los títulos son consecutivos: se mezclan para no llenar tramos seguidos de la tabla
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
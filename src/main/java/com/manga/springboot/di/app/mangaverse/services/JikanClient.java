@@ -0,0 +1,142 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class JikanClient implements MeterBinder {
+
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final RestClient restClient;
+    private final String baseUrl;
+    // Tope de una petición con sus reintentos: un future colgado bloquearía su clave en la caché
+    private final Duration fetchTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Caché compartida por todos los usuarios: acotada, con expiración y
+    // una sola petición en vuelo por clave (las concurrentes esperan el mismo future)
+    private final AsyncCache<String, String> cache;
+
+    private final LongAdder upstreamCalls = new LongAdder();
+
+    public JikanClient(RestClient.Builder restClientBuilder,
+            @Value("${jikan.api.base-url:https://api.jikan.moe/v4}") String baseUrl,
+            @Value("${jikan.cache.max-entries:2000}") long maxEntries,
+            @Value("${jikan.cache.ttl:10m}") Duration ttl,
+            @Value("${jikan.fetch.timeout:30s}") Duration fetchTimeout) {
+        // Los timeouts de conexión y lectura vienen de spring.http.client.* (builder de Spring Boot)
+        this.restClient = restClientBuilder.build();
+        this.fetchTimeout = fetchTimeout;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .executor(executor)
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jikan");
+        FunctionCounter.builder("mangaverse.jikan.upstream.calls", upstreamCalls, LongAdder::sum)
+                .description("Peticiones HTTP enviadas a Jikan, incluidos los reintentos")
+                .register(registry);
+    }
+
+    // Devuelve el JSON crudo de Jikan para una ruta relativa, p. ej. "/top/anime?limit=10"
+    public CompletableFuture<String> getAsync(String pathAndQuery) {
+        String key = normalize(pathAndQuery);
+        CompletableFuture<String> future = cache.get(key,
+                (k, exec) -> CompletableFuture.supplyAsync(() -> fetch(k), exec)
+                        .orTimeout(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS));
+
+        // Los errores (también el timeout) no se guardan: el siguiente llamador vuelve a intentarlo
+        return future.whenComplete((body, error) -> {
+            if (error != null) {
+                cache.asMap().remove(key, future);
+            }
+        });
+    }
+
+    public String get(String pathAndQuery) {
+        try {
+            return getAsync(pathAndQuery).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Jikan no respondió en " + fetchTimeout.toSeconds() + " s", e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    // Sin pasar por la caché: para la ingesta del catálogo local, que recorre páginas que nadie más pide
+    public String getUncached(String pathAndQuery) {
+        return fetch(normalize(pathAndQuery));
+    }
+
+    public long getUpstreamCalls() {
+        return upstreamCalls.sum();
+    }
+
+    public long getCachedEntries() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    private String fetch(String pathAndQuery) {
+        URI uri = URI.create(baseUrl + pathAndQuery);
+
+        for (int attempt = 0;; attempt++) {
+            upstreamCalls.increment();
+            try {
+                return restClient.get().uri(uri).retrieve().body(String.class);
+            } catch (HttpClientErrorException e) {
+                // Jikan limita a ~3 peticiones/segundo; esperamos y reintentamos
+                if (e.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS || attempt >= MAX_RETRIES) {
+                    throw e;
+                }
+                sleep(RETRY_DELAY_MS * (attempt + 1));
+            }
+        }
+    }
+
+    private static String normalize(String pathAndQuery) {
+        if (pathAndQuery == null || pathAndQuery.isBlank()) {
+            throw new IllegalArgumentException("Ruta de Jikan vacía");
+        }
+        return pathAndQuery.startsWith("/") ? pathAndQuery : "/" + pathAndQuery;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Petición a Jikan interrumpida", e);
+        }
+    }
+}
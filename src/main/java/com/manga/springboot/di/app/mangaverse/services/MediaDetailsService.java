@@ -0,0 +1,100 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Ficha completa de un anime/manga en una sola respuesta: las cinco llamadas a Jikan salen a la vez
+// (JikanClient las ejecuta en hilos virtuales), así el tiempo total es el de la más lenta y no la suma.
+// Solo /full es imprescindible; si otra parte falla o tarda demasiado se devuelve sin ella
+@Service
+public class MediaDetailsService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaDetailsService.class);
+
+    public static final List<String> KINDS = List.of("anime", "manga");
+    // Nombre en la respuesta -> ruta de Jikan bajo /{kind}/{id}
+    private static final Map<String, String> PARTS = Map.of(
+            "statistics", "/statistics",
+            "reviews", "/reviews",
+            "relations", "/relations",
+            "recommendations", "/recommendations");
+
+    @Autowired
+    private JikanClient jikanClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jikan.details.timeout:4s}")
+    private Duration timeout;
+
+    public Map<String, Object> getDetails(String kind, long id) {
+        if (!KINDS.contains(kind)) {
+            throw new IllegalArgumentException("Tipo no válido: " + kind);
+        }
+        String base = "/" + kind + "/" + id;
+
+        // Todas las peticiones se lanzan antes de esperar a ninguna
+        CompletableFuture<JsonNode> full = fetch(base + "/full");
+        Map<String, CompletableFuture<JsonNode>> parts = new LinkedHashMap<>();
+        PARTS.forEach((name, path) -> parts.put(name, fetch(base + path)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("data", join(full));
+
+        List<String> missing = new ArrayList<>();
+        parts.forEach((name, future) -> {
+            try {
+                response.put(name, join(future));
+            } catch (RuntimeException e) {
+                log.debug("Ficha de {}: sin {} ({})", base, name, e.getMessage());
+                response.put(name, null);
+                missing.add(name);
+            }
+        });
+        response.put("missing", missing);
+        return response;
+    }
+
+    // El timeout solo deja de esperar: la petición sigue en curso y su resultado queda en la caché de JikanClient
+    private CompletableFuture<JsonNode> fetch(String path) {
+        return jikanClient.getAsync(path)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(this::data);
+    }
+
+    private JsonNode data(String body) {
+        try {
+            return objectMapper.readTree(body).path("data");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta de Jikan no válida", e);
+        }
+    }
+
+    private static JsonNode join(CompletableFuture<JsonNode> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Jikan no respondió a tiempo", e.getCause());
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Usuarios que acaban de escribir: durante la ventana sus lecturas van a la base principal en lugar de a la
+// réplica, así quien marca un favorito lo ve en su lista aunque la réplica vaya unos segundos por detrás
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(@Value("${db.replica.read-your-writes:5s}") Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,301 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogTitleDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria sobre los títulos del catálogo (el principal, el inglés y los alternativos):
+// - trigramas -> documentos, para tolerar erratas ("narutp" sigue encontrando "Naruto")
+// - palabras ordenadas -> documentos, para autocompletar la última palabra que se está escribiendo
+// Los documentos solo se añaden al final (los ids crecen), así cada lista de postings queda ordenada;
+// una actualización marca la versión anterior como borrada y se compacta cuando hay demasiadas
+public class TitleSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Fracción mínima de trigramas de la consulta que debe tener un título (si no coincide por prefijo)
+    private static final double MIN_COVERAGE = 0.5;
+    private static final int MAX_LIMIT = 50;
+    private static final int PREFIX_MATCH = 1 << 30;
+
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<CatalogTitleDTO> docs = new ArrayList<>();
+    private final List<List<String>> normalizedNames = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    // Parte de la puntuación que no depende de la consulta (popularidad y nota), precalculada por documento
+    private double[] staticRank = new double[1024];
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final Map<String, Integer> liveByKind = new HashMap<>();
+
+    private final Map<String, IntList> gramPostings = new HashMap<>();
+    private final TreeMap<String, IntList> tokenPostings = new TreeMap<>();
+
+    public void addAll(Collection<CatalogTitleDTO> titles) {
+        lock.writeLock().lock();
+        try {
+            titles.forEach(this::addLocked);
+            if (deleted.cardinality() > 1000 && deleted.cardinality() > docs.size() / 4) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(CatalogTitleDTO title) {
+        addAll(List.of(title));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(String kind) {
+        lock.readLock().lock();
+        try {
+            return liveByKind.getOrDefault(kind, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // kind puede ser null para buscar en anime y manga a la vez
+    public List<CatalogTitleDTO> search(String query, String kind, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> queryTokens = tokens(normalized);
+        Set<String> queryGrams = trigrams(normalized);
+        String lastToken = queryTokens.get(queryTokens.size() - 1);
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        lock.readLock().lock();
+        try {
+            // Contadores por documento reutilizados entre consultas del mismo hilo (se limpian al terminar),
+            // así una consulta no reserva un array del tamaño del catálogo. El bit alto marca coincidencia por prefijo
+            int[] hits = scratch(docs.size());
+            IntList candidates = new IntList();
+
+            for (String gram : queryGrams) {
+                IntList postings = gramPostings.get(gram);
+                if (postings == null) {
+                    continue;
+                }
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.values[i];
+                    if (hits[doc]++ == 0) {
+                        candidates.add(doc);
+                    }
+                }
+            }
+
+            for (IntList postings : tokenPostings.subMap(lastToken, true, lastToken + Character.MAX_VALUE, true).values()) {
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.values[i];
+                    if (hits[doc] == 0) {
+                        candidates.add(doc);
+                    }
+                    hits[doc] |= PREFIX_MATCH;
+                }
+            }
+
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(max + 1, Comparator.comparingDouble(ScoredDoc::score));
+            for (int i = 0; i < candidates.size; i++) {
+                int doc = candidates.values[i];
+                int docHits = hits[doc];
+                hits[doc] = 0;
+                if (deleted.get(doc) || (kind != null && !kind.equals(docs.get(doc).getKind()))) {
+                    continue;
+                }
+
+                double coverage = (double) (docHits & ~PREFIX_MATCH) / queryGrams.size();
+                boolean prefix = (docHits & PREFIX_MATCH) != 0;
+                if (!prefix && coverage < MIN_COVERAGE) {
+                    continue;
+                }
+
+                // Un título que empieza por la consulta siempre coincide también por prefijo
+                double relevance = coverage + (prefix ? 0.5 : 0);
+                double score = relevance * 2 + staticRank[doc];
+                if (top.size() == max && score + 1 <= top.peek().score()) {
+                    continue;
+                }
+                if (prefix && startsWith(normalizedNames.get(doc), normalized)) {
+                    score += 1;
+                }
+
+                if (top.size() < max) {
+                    top.offer(new ScoredDoc(doc, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.offer(new ScoredDoc(doc, score));
+                }
+            }
+
+            CatalogTitleDTO[] result = new CatalogTitleDTO[top.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = docs.get(top.poll().doc());
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(CatalogTitleDTO title) {
+        if (title.getTitle() == null || title.getTitle().isBlank()) {
+            return;
+        }
+        String key = title.getKind() + ":" + title.getMalId();
+        Integer previous = docByKey.get(key);
+        if (previous != null) {
+            deleted.set(previous);
+            liveByKind.merge(title.getKind(), -1, Integer::sum);
+        }
+
+        int doc = docs.size();
+        List<String> names = names(title);
+        docs.add(title);
+        normalizedNames.add(names);
+        if (doc == staticRank.length) {
+            staticRank = Arrays.copyOf(staticRank, doc * 2);
+        }
+        staticRank[doc] = 0.3 * popularity(title) + 0.2 * rating(title);
+        docByKey.put(key, doc);
+        liveByKind.merge(title.getKind(), 1, Integer::sum);
+
+        // Un trigrama o palabra compartido por varios nombres cuenta una sola vez por documento
+        Set<String> grams = new LinkedHashSet<>();
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String name : names) {
+            grams.addAll(trigrams(name));
+            tokens.addAll(tokens(name));
+        }
+        for (String gram : grams) {
+            gramPostings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+        }
+        for (String token : tokens) {
+            tokenPostings.computeIfAbsent(token, t -> new IntList()).add(doc);
+        }
+    }
+
+    private void compactLocked() {
+        List<CatalogTitleDTO> live = new ArrayList<>();
+        for (int doc = 0; doc < docs.size(); doc++) {
+            if (!deleted.get(doc)) {
+                live.add(docs.get(doc));
+            }
+        }
+        docs.clear();
+        normalizedNames.clear();
+        deleted.clear();
+        docByKey.clear();
+        liveByKind.clear();
+        gramPostings.clear();
+        tokenPostings.clear();
+        live.forEach(this::addLocked);
+    }
+
+    private static int[] scratch(int size) {
+        int[] hits = SCRATCH.get();
+        if (hits.length < size) {
+            hits = new int[Math.max(size, hits.length * 2)];
+            SCRATCH.set(hits);
+        }
+        return hits;
+    }
+
+    private static List<String> names(CatalogTitleDTO title) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(normalize(title.getTitle()));
+        names.add(normalize(title.getTitleEnglish()));
+        if (title.getAlternativeTitles() != null) {
+            for (String alternative : title.getAlternativeTitles().split("\n")) {
+                names.add(normalize(alternative));
+            }
+        }
+        names.remove("");
+        return List.copyOf(names);
+    }
+
+    private static boolean startsWith(List<String> names, String normalized) {
+        for (String name : names) {
+            if (name.startsWith(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "Shingeki no Kyōjin: The Final" -> "shingeki no kyojin the final"
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static List<String> tokens(String normalized) {
+        return List.of(normalized.split(" "));
+    }
+
+    // Con un espacio a cada lado, así las palabras cortas también generan trigramas
+    private static Set<String> trigrams(String normalized) {
+        String padded = " " + normalized + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static double popularity(CatalogTitleDTO title) {
+        return title.getMembers() == null ? 0 : Math.log10(1 + title.getMembers()) / 7;
+    }
+
+    private static double rating(CatalogTitleDTO title) {
+        return title.getScore() == null ? 0 : title.getScore() / 10;
+    }
+
+    private record ScoredDoc(int doc, double score) {
+    }
+
+    // Lista de enteros sin boxing para los postings
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogTitleDTO;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Búsqueda de títulos para el autocompletado: se resuelve en memoria sobre el catálogo local,
+// que se carga al arrancar y se actualiza con cada página que guarda la ingesta
+@Service
+public class TitleSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSearchService.class);
+
+    private final TitleSearchIndex index = new TitleSearchIndex();
+
+    @Autowired
+    private CatalogItemRepository itemRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.nanoTime();
+        index.addAll(itemRepository.findAllTitles());
+        log.info("Índice de búsqueda cargado: {} títulos en {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void indexItems(List<CatalogItem> items) {
+        List<CatalogTitleDTO> titles = new ArrayList<>();
+        for (CatalogItem item : items) {
+            titles.add(new CatalogTitleDTO(item.getKind(), item.getMalId(), item.getTitle(), item.getTitleEnglish(),
+                    item.getAlternativeTitles(), item.getType(), item.getStatus(), item.getScore(), item.getYear(),
+                    item.getMembers(), item.getImageUrl()));
+        }
+        index.addAll(titles);
+    }
+
+    // Mientras la ingesta no complete una pasada el índice solo tiene parte del catálogo y faltarían resultados
+    public boolean isReady(String kind) {
+        if (kind == null) {
+            return index.size() > 0 && CatalogIngestionService.KINDS.stream().allMatch(catalogService::isAvailable);
+        }
+        return index.size(kind) > 0 && catalogService.isAvailable(kind);
+    }
+
+    // Resultados en el formato de Jikan para que el front los trate igual que los de /anime?q=
+    public List<Map<String, Object>> search(String query, String kind, int limit) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (CatalogTitleDTO title : index.search(query, kind, limit)) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("mal_id", title.getMalId());
+            result.put("kind", title.getKind());
+            result.put("title", title.getTitle());
+            result.put("title_english", title.getTitleEnglish());
+            result.put("type", title.getType());
+            result.put("status", title.getStatus());
+            result.put("score", title.getScore());
+            result.put("year", title.getYear());
+            result.put("members", title.getMembers());
+            result.put("images", Map.of("jpg", title.getImageUrl() != null ? Map.of("image_url", title.getImageUrl()) : Map.of()));
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,174 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Comprobación de nombres de usuario y emails ocupados sin consultar la tabla users en cada tecla:
+// un filtro de Bloom en memoria responde "libre" con seguridad y solo los posibles ocupados
+// se confirman con la consulta por índice único. Se carga al arrancar y se actualiza en cada registro
+@Service
+public class UserAvailabilityService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    // Usernames y emails comparten filtro con un prefijo distinto
+    private static final String USERNAME = "u:";
+    private static final String EMAIL = "e:";
+    // Cada usuario ocupa dos claves en el filtro
+    private static final int KEYS_PER_USER = 2;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${users.availability.expected-users:100000}")
+    private int expectedUsers;
+
+    @Value("${users.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Filtro en construcción: los registros que llegan mientras se recorre la tabla se añaden a los dos
+    private volatile BloomFilter pending;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder answeredFromMemory = new LongAdder();
+    private final LongAdder databaseLookups = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        rebuilds.increment();
+        // Hueco para el doble de los usuarios actuales antes de la siguiente reconstrucción
+        long expected = Math.max(expectedUsers, userRepository.count() * 2);
+        BloomFilter next = new BloomFilter((int) Math.min(Integer.MAX_VALUE, expected * KEYS_PER_USER), falsePositiveRate);
+        pending = next;
+        if (filter == null) {
+            filter = next;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> users = userRepository.streamUsernamesAndEmails()) {
+                users.forEach(row -> {
+                    next.add(USERNAME + normalize((String) row[0]));
+                    next.add(EMAIL + normalize((String) row[1]));
+                });
+            }
+        });
+        filter = next;
+        pending = null;
+        ready = true;
+        log.info("Filtro de usuarios cargado: {} entradas, {} KB, en {} ms",
+                next.size(), next.bitCount() / 8 / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void added(String username, String email) {
+        add(USERNAME + normalize(username));
+        add(EMAIL + normalize(email));
+        // Pasada la capacidad los falsos positivos crecen: se reconstruye con el doble de tamaño en segundo
+        // plano (una sola reconstrucción a la vez) para no recorrer la tabla dentro del registro
+        BloomFilter current = filter;
+        if (ready && current.size() > current.capacity() && rebuilding.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo reconstruir el filtro de usuarios: {}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    public boolean usernameExists(String username) {
+        if (mightBeTaken(USERNAME + normalize(username))) {
+            databaseLookups.increment();
+            return userRepository.existsByUsername(username);
+        }
+        return false;
+    }
+
+    public boolean emailExists(String email) {
+        if (mightBeTaken(EMAIL + normalize(email))) {
+            databaseLookups.increment();
+            return userRepository.existsByEmail(email);
+        }
+        return false;
+    }
+
+    // Comprobaciones resueltas en memoria frente a las que acabaron en consulta
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mangaverse.users.availability.checks", answeredFromMemory, LongAdder::sum)
+                .tag("source", "memory")
+                .register(registry);
+        FunctionCounter.builder("mangaverse.users.availability.checks", databaseLookups, LongAdder::sum)
+                .tag("source", "database")
+                .register(registry);
+    }
+
+    public long getAnsweredFromMemory() {
+        return answeredFromMemory.sum();
+    }
+
+    public long getDatabaseLookups() {
+        return databaseLookups.sum();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    // Hasta que termina la carga inicial todo se considera posible y se pregunta a la base de datos
+    private boolean mightBeTaken(String key) {
+        if (!ready || filter.mightContain(key)) {
+            return true;
+        }
+        answeredFromMemory.increment();
+        return false;
+    }
+
+    // pending se lee antes que filter: rebuild() publica el filtro nuevo antes de vaciar pending,
+    // así una clave nunca acaba solo en el filtro que se descarta
+    private void add(String key) {
+        BloomFilter next = pending;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(key);
+        }
+        if (next != null && next != current) {
+            next.add(key);
+        }
+    }
+
+    // La colación de MySQL no distingue mayúsculas: el filtro tampoco, y el índice decide el caso exacto
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
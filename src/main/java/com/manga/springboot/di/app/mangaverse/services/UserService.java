@@ -3,7 +3,9 @@ package com.manga.springboot.di.app.mangaverse.services;
 import com.manga.springboot.di.app.mangaverse.dto.request.UserRegistrationDTO;
 import com.manga.springboot.di.app.mangaverse.models.User;
 import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,6 +13,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
+// Tiempo de cada método público en mangaverse.service{class, method}
+@Timed("mangaverse.service")
 @Service
 public class UserService {
 
@@ -20,9 +24,14 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    private static final String PASSWORD_PATTERN = "^(?=.*[A-Z])(?=.*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?]).+$";
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    // Compilado una vez: Pattern.matches(String, ...) volvía a compilar la expresión en cada llamada
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[A-Z])(?=.*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?]).+$");
 
-    @Transactional
+    // Sin transacción alrededor: el hash (decenas de ms en el pool de BoundedPasswordEncoder) no retiene
+    // una conexión; si dos registros chocan, las columnas únicas de users rechazan el segundo
     public User registerUser(UserRegistrationDTO registrationDTO) {
         validateUserExists(registrationDTO);
         validatePasswordMatch(registrationDTO);
@@ -35,15 +44,23 @@ public class UserService {
                 registrationDTO.getEmail(),
                 encryptedPassword);
 
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Otro registro con el mismo nombre o email se guardó entre la comprobación y el insert
+            throw new RuntimeException("El nombre de usuario o el email ya están en uso");
+        }
+        availabilityService.added(saved.getUsername(), saved.getEmail());
+        return saved;
     }
 
     private void validateUserExists(UserRegistrationDTO registrationDTO) {
-        if (userRepository.existsByUsername(registrationDTO.getUsername())) {
+        if (availabilityService.usernameExists(registrationDTO.getUsername())) {
             throw new RuntimeException("El nombre de usuario ya está en uso");
         }
 
-        if (userRepository.existsByEmail(registrationDTO.getEmail())) {
+        if (availabilityService.emailExists(registrationDTO.getEmail())) {
             throw new RuntimeException("El email ya está registrado");
         }
     }
@@ -55,24 +72,30 @@ public class UserService {
     }
 
     private void validatePasswordStrength(String password) {
-        if (!Pattern.matches(PASSWORD_PATTERN, password)) {
+        if (!PASSWORD_PATTERN.matcher(password).matches()) {
             throw new RuntimeException("La contraseña debe contener al menos una mayúscula y un carácter especial");
         }
     }
 
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        return availabilityService.usernameExists(username);
     }
 
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return availabilityService.emailExists(email);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    // Referencia perezosa al usuario (sin consulta) para asociarlo a otras entidades por id
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
     public boolean isPasswordStrong(String password) {
-        return Pattern.matches(PASSWORD_PATTERN, password);
+        return PASSWORD_PATTERN.matcher(password).matches();
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+-- Esquema de cada shard de favoritos. Igual que el que genera Hibernate en la base principal,
+-- sin la clave ajena a users (los usuarios siguen en la principal). La secuencia de ids la crea ShardingConfig
+CREATE TABLE IF NOT EXISTS favorites (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    content_id VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    title VARCHAR(255),
+    image_url VARCHAR(255),
+    score DOUBLE,
+    year INT,
+    added_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_favorites_user_content UNIQUE (user_id, content_id, content_type),
+    INDEX idx_favorites_user_added (user_id, added_at, id),
+    INDEX idx_favorites_user_updated (user_id, updated_at),
+    INDEX idx_favorites_user_type_score (user_id, content_type, score),
+    INDEX idx_favorites_user_type_year (user_id, content_type, year)
+);
+
+CREATE TABLE IF NOT EXISTS favorite_counters (
+    user_id BIGINT NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    total BIGINT NOT NULL,
+    PRIMARY KEY (user_id, content_type)
+);
+
+CREATE TABLE IF NOT EXISTS favorite_tombstones (
+    user_id BIGINT NOT NULL,
+    content_id VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id, content_id, content_type),
+    INDEX idx_favorite_tombstones_user_deleted (user_id, deleted_at)
+);
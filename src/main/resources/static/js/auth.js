@@ -6,7 +6,8 @@ import {
     hideAllErrors,
     clearAllErrors,
     getEmailErrorMessage,
-    getUsernameErrorMessage
+    getUsernameErrorMessage,
+    checkAvailability
 } from './validation.js';
 
 document.addEventListener('DOMContentLoaded', function () {
@@ -23,10 +24,28 @@ document.addEventListener('DOMContentLoaded', function () {
     const passwordInput = document.getElementById('password');
     const confirmPasswordInput = document.getElementById('confirmPassword');
 
+    // Disponibilidad en el servidor: se espera a que el usuario deje de escribir
+    const AVAILABILITY_DELAY = 400;
+    const availabilityTimers = {};
+
+    function scheduleAvailabilityCheck(field, input, takenMessage) {
+        clearTimeout(availabilityTimers[field]);
+        const value = input.value.trim();
+        availabilityTimers[field] = setTimeout(async () => {
+            const available = await checkAvailability(field, value);
+            // Si el campo cambió mientras tanto, la respuesta ya no aplica
+            if (available === false && input.value.trim() === value) {
+                showError(input, takenMessage);
+            }
+        }, AVAILABILITY_DELAY);
+    }
+
     // Validación en tiempo real del username
     if (usernameInput) {
         usernameInput.addEventListener('input', function () {
-            validateUsernameRealTime(this.value);
+            if (validateUsernameRealTime(this.value) && this.value.length > 0) {
+                scheduleAvailabilityCheck('username', usernameInput, 'El nombre de usuario ya está en uso');
+            }
         });
 
         usernameInput.addEventListener('blur', function () {
@@ -41,7 +60,9 @@ document.addEventListener('DOMContentLoaded', function () {
     // Validación en tiempo real del email
     if (emailInput) {
         emailInput.addEventListener('input', function () {
-            validateEmailRealTime(this.value);
+            if (validateEmailRealTime(this.value) && this.value.length > 0) {
+                scheduleAvailabilityCheck('email', emailInput, 'El email ya está registrado');
+            }
         });
 
         emailInput.addEventListener('blur', function () {
@@ -2,11 +2,14 @@
 import {
     getCatalogSections,
     getAnimeByGenre,
+    filterCatalog,
+    getGenreFacets,
     POPULAR_GENRES
 } from './datosApiJikan.js';
 
 import {
     createMediaCard,
+    applyFavoriteStatuses,
     setupEventDelegation,
     showNotification
 } from './mediaUtils.js';
@@ -63,6 +66,7 @@ document.addEventListener('DOMContentLoaded', async () => {
     setupEventDelegation();
     setupFilterListeners();
     populateGenreFilter();
+    showGenreCounts();
     await loadCatalogContent();
 });
 
@@ -102,6 +106,21 @@ function populateGenreFilter() {
     });
 }
 
+// Añadir a cada género cuántos títulos tiene en el catálogo local
+async function showGenreCounts() {
+    const genreFilter = document.getElementById('genreFilter');
+    if (!genreFilter) return;
+
+    const facets = await getGenreFacets('anime');
+    const counts = new Map(facets.map(facet => [String(facet.genreId), facet.count]));
+
+    Array.from(genreFilter.options).forEach(option => {
+        if (counts.has(option.value)) {
+            option.textContent = `${option.textContent} (${counts.get(option.value)})`;
+        }
+    });
+}
+
 // Configurar listeners para los filtros
 function setupFilterListeners() {
     const applyBtn = document.getElementById('applyFilters');
@@ -157,8 +176,7 @@ async function applyFilters() {
     resultsGrid.innerHTML = '<div class="loading">Aplicando filtros...</div>';
 
     try {
-        // Construir URL de la API con los filtros
-        let apiUrl = 'https://api.jikan.moe/v4/anime?';
+        // Parámetros de filtro (mismo formato en el catálogo local y en Jikan)
         const params = [];
 
         if (catalogState.filters.genre) {
@@ -184,15 +202,7 @@ async function applyFilters() {
         // Limitar a 20 resultados
         params.push('limit=20');
 
-        apiUrl += params.join('&');
-        console.log('API URL:', apiUrl); // Para debugging
-
-        const response = await fetch(apiUrl);
-        if (!response.ok) {
-            throw new Error(`Error HTTP: ${response.status}`);
-        }
-        
-        const data = await response.json();
+        const data = await filterCatalog('anime', params);
 
         if (data.data && data.data.length > 0) {
             await renderAnimeList(resultsGrid, data.data, 'anime');
@@ -269,13 +279,16 @@ async function renderAnimeList(container, animeList, type) {
     // Crear todas las tarjetas
     for (const anime of animeList) {
         try {
-            const card = await createMediaCard(anime, type);
+            const card = await createMediaCard(anime, type, { checkFavorite: false });
             container.appendChild(card);
         } catch (error) {
             console.error('Error creating media card:', error);
         }
     }
 
+    // Un único chequeo de favoritos para toda la cuadrícula
+    await applyFavoriteStatuses(container);
+
     // Si no hay elementos, mostrar mensaje
     if (container.children.length === 0) {
         container.innerHTML = '<div class="no-results">No se encontraron resultados.</div>';
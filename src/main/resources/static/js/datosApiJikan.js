@@ -1,6 +1,9 @@
 // datosApiJikan.js - API Completa para MangaVerse
 
-const API_BASE = 'https://api.jikan.moe/v4';
+import { coverUrl } from './mediaUtils.js';
+
+// Las peticiones pasan por el servidor, que comparte la caché entre usuarios
+const API_BASE = '/api/catalog';
 const RETRY_DELAY = 2000;
 const MAX_RETRIES = 3;
 const requestCache = new Map();
@@ -39,20 +42,37 @@ async function fetchWithRetry(url, retries = MAX_RETRIES) {
     }
 }
 
-export function safeImage(obj, type = 'anime') {
+export function safeImage(obj, type = 'anime', size = 'medium') {
     if (!obj) return `/img/placeholder-${type}.jpg`;
     if (obj.images && obj.images.jpg) {
-        return obj.images.jpg.large_image_url || obj.images.jpg.image_url || `/img/placeholder-${type}.jpg`;
+        return coverUrl(obj.images.jpg.large_image_url || obj.images.jpg.image_url, type, size);
     }
-    if (obj.image_url) return obj.image_url;
+    if (obj.image_url) return coverUrl(obj.image_url, type, size);
     return `/img/placeholder-${type}.jpg`;
 }
 
 // ===== INFORMACIÓN BÁSICA (Para el Dashboard) =====
+// ===== SECCIONES PRECALCULADAS =====
+// El servidor construye las secciones fijas (en emisión, populares, top manga...) cada pocos minutos;
+// si todavía no están (503) o la sección no cubre el límite pedido, se pregunta a Jikan como antes
+let dashboardSnapshot = null;
+
+async function getSnapshotSection(kind, name, limit) {
+    if (!dashboardSnapshot) {
+        dashboardSnapshot = fetch('/api/dashboard')
+            .then(response => response.ok ? response.json() : null)
+            .catch(() => null);
+    }
+    const snapshot = await dashboardSnapshot;
+    const maxLimit = snapshot?.limits?.[kind]?.[name];
+    if (!maxLimit || limit > maxLimit) return null;
+    return snapshot[kind][name].slice(0, limit);
+}
+
 export async function getTrendingAnime(limit = 10, filter = 'airing') {
     try {
-        const response = await fetchWithRetry(`${API_BASE}/top/anime?limit=${limit}&filter=${filter}`);
-        const animeList = response.data || [];
+        const animeList = await getSnapshotSection('anime', filter, limit)
+            || (await fetchWithRetry(`${API_BASE}/top/anime?limit=${limit}&filter=${filter}`)).data || [];
 
         return animeList.map(anime => ({
             // Información básica
@@ -160,8 +180,8 @@ export async function getAnimeByMultipleGenres(genreIds, limit = 15) {
 
 export async function getTrendingManga(limit = 5) {
     try {
-        const response = await fetchWithRetry(`${API_BASE}/top/manga?limit=${limit}`);
-        const mangaList = response.data || [];
+        const mangaList = await getSnapshotSection('manga', 'top', limit)
+            || (await fetchWithRetry(`${API_BASE}/top/manga?limit=${limit}`)).data || [];
 
         return mangaList.map(manga => ({
             // Información básica
@@ -202,8 +222,8 @@ export async function getDashboardManga() {
 // Para el catálogo (20 items)
 export async function getCatalogManga() {
     try {
-        const response = await fetchWithRetry(`${API_BASE}/top/manga?limit=20`);
-        const mangaList = response.data || [];
+        const mangaList = await getSnapshotSection('manga', 'top', 20)
+            || (await fetchWithRetry(`${API_BASE}/top/manga?limit=20`)).data || [];
 
         return mangaList.map(manga => ({
             id: manga.mal_id,
@@ -553,9 +573,23 @@ export async function getMangaRecommendations(mangaId, limit = 6) {
 }
 
 // ===== BÚSQUEDA =====
+// El autocompletado se resuelve en el índice del servidor; si aún no está listo (503) se pregunta a Jikan
+async function searchTitles(kind, query, limit) {
+    const q = encodeURIComponent(query);
+    try {
+        const response = await fetch(`/api/search?q=${q}&kind=${kind}&limit=${limit}`);
+        if (response.ok) {
+            return await response.json();
+        }
+    } catch (error) {
+        console.warn('Índice de búsqueda no disponible, usando Jikan:', error);
+    }
+    return fetchWithRetry(`${API_BASE}/${kind}?q=${q}&limit=${limit}`);
+}
+
 export async function searchAnime(query, limit = 10) {
     try {
-        const response = await fetchWithRetry(`${API_BASE}/anime?q=${encodeURIComponent(query)}&limit=${limit}`);
+        const response = await searchTitles('anime', query, limit);
         return response.data.map(anime => ({
             id: anime.mal_id,
             title: anime.title,
@@ -574,7 +608,7 @@ export async function searchAnime(query, limit = 10) {
 
 export async function searchManga(query, limit = 10) {
     try {
-        const response = await fetchWithRetry(`${API_BASE}/manga?q=${encodeURIComponent(query)}&limit=${limit}`);
+        const response = await searchTitles('manga', query, limit);
         return response.data.map(manga => ({
             id: manga.mal_id,
             title: manga.title,
@@ -634,6 +668,8 @@ export function getFallbackManga() {
 
 export async function getTopMangas(limit = 10) {
     try {
+        const cached = await getSnapshotSection('manga', 'top', limit);
+        if (cached) return cached;
         const response = await fetchWithRetry(`${API_BASE}/top/manga?limit=${limit}`);
         return response.data || [];
     } catch (error) {
@@ -644,6 +680,8 @@ export async function getTopMangas(limit = 10) {
 
 export async function getLatestMangas(limit = 10) {
     try {
+        const cached = await getSnapshotSection('manga', 'latest', limit);
+        if (cached) return cached;
         const response = await fetchWithRetry(`${API_BASE}/manga?order_by=start_date&sort=desc&limit=${limit}`);
         return response.data || [];
     } catch (error) {
@@ -662,6 +700,33 @@ export async function getTopAnime(limit = 5) {
     }
 }
 
+// ===== CATÁLOGO LOCAL =====
+// Filtros servidos desde la copia local del catálogo; si aún no está lista (503) se usa la pasarela a Jikan
+export async function filterCatalog(kind, params) {
+    const query = params.join('&');
+    try {
+        const response = await fetch(`${API_BASE}/local/${kind}?${query}`);
+        if (response.ok) {
+            return await response.json();
+        }
+    } catch (error) {
+        console.warn('Catálogo local no disponible, usando Jikan:', error);
+    }
+    return fetchWithRetry(`${API_BASE}/${kind}?${query}`);
+}
+
+// Géneros con el número de títulos del catálogo local; lista vacía si aún no está lista
+export async function getGenreFacets(kind) {
+    try {
+        const response = await fetch(`${API_BASE}/local/${kind}/genres`);
+        if (!response.ok) return [];
+        const data = await response.json();
+        return data.data || [];
+    } catch (error) {
+        return [];
+    }
+}
+
 // ===== EXPORTACIÓN COMPLETA =====
 export default {
     // Información básica (Dashboard)
@@ -677,7 +742,8 @@ export default {
     getMangaByMultipleGenres,
     getMangaByType,
     getMangaByStatus,
-
+    filterCatalog,
+    getGenreFacets,
 
     // Detalles completos (Páginas de detalle)
     getAnimeDetails,
@@ -1,13 +1,94 @@
-import { showNotification, viewDetails } from './mediaUtils.js';
+import { showNotification, viewDetails, escapeHtml, coverUrl } from './mediaUtils.js';
 import {
     checkLoginStatus
 } from './functions.js';
 
+const PAGE_SIZE = 24;
+let isLoadingPage = false;
+
 document.addEventListener('DOMContentLoaded', function () {
     setupFavoriteEvents();
+    setupInfiniteScroll();
+    setupLiveUpdates();
     checkLoginStatus();
 });
 
+// ===== SCROLL INFINITO =====
+function setupInfiniteScroll() {
+    const sentinel = document.getElementById('favoritesSentinel');
+    const grid = document.querySelector('.favorites-grid');
+    if (!sentinel || !grid) return;
+
+    if (!grid.dataset.nextCursor) {
+        sentinel.remove();
+        return;
+    }
+
+    const observer = new IntersectionObserver(async (entries) => {
+        if (!entries.some(entry => entry.isIntersecting)) return;
+
+        await loadNextPage(grid);
+        if (!grid.dataset.nextCursor) {
+            observer.disconnect();
+            sentinel.remove();
+        }
+    }, { rootMargin: '0px 0px 400px 0px' });
+
+    observer.observe(sentinel);
+}
+
+async function loadNextPage(grid) {
+    if (isLoadingPage) return;
+    isLoadingPage = true;
+
+    try {
+        const cursor = encodeURIComponent(grid.dataset.nextCursor);
+        const response = await fetch(`/user/favorites/page?cursor=${cursor}&size=${PAGE_SIZE}`);
+        const result = await response.json();
+
+        if (result.success) {
+            grid.insertAdjacentHTML('beforeend', result.items.map(createFavoriteItem).join(''));
+            grid.dataset.nextCursor = result.nextCursor || '';
+        } else {
+            showNotification('Error al cargar más favoritos', 'error');
+        }
+    } catch (error) {
+        console.error('Error loading favorites page:', error);
+    } finally {
+        isLoadingPage = false;
+    }
+}
+
+// Misma estructura que la plantilla favorites.html
+function createFavoriteItem(fav) {
+    const title = escapeHtml(fav.title || '');
+    const type = escapeHtml(fav.contentType);
+    const contentId = escapeHtml(fav.contentId);
+
+    return `
+        <div class="favorite-item">
+            <div class="favorite-image">
+                <img src="${escapeHtml(coverUrl(fav.imageUrl, fav.contentType, 'small'))}" alt="${title}"
+                    onerror="this.src='/img/placeholder-${type}.jpg'">
+                <div class="favorite-overlay">
+                    <button class="btn-remove-favorite" data-content-id="${contentId}"
+                        data-content-type="${type}">
+                        <i class="fas fa-trash"></i>
+                    </button>
+                </div>
+            </div>
+            <div class="favorite-info">
+                <h5>${title}</h5>
+                <div class="favorite-meta">
+                    <span class="badge">${type}</span>
+                    ${fav.score > 0 ? `<span class="rating"><i class="fas fa-star"></i> <span>${fav.score}</span></span>` : ''}
+                    ${fav.year > 0 ? `<span>${fav.year}</span>` : ''}
+                </div>
+            </div>
+        </div>
+    `;
+}
+
 function setupFavoriteEvents() {
     // Eliminar favoritos
     document.addEventListener('click', async function (e) {
@@ -40,17 +121,7 @@ async function removeFavorite(contentId, contentType) {
         const result = await response.json();
 
         if (result.success) {
-            const items = document.querySelectorAll('.favorite-item');
-            let itemToRemove = null;
-
-            items.forEach(item => {
-                const removeBtn = item.querySelector('.btn-remove-favorite');
-                if (removeBtn &&
-                    removeBtn.dataset.contentId === contentId &&
-                    removeBtn.dataset.contentType === contentType) {
-                    itemToRemove = item;
-                }
-            });
+            const itemToRemove = findFavoriteItem(contentId, contentType);
 
             if (itemToRemove) {
                 itemToRemove.remove();
@@ -68,17 +139,33 @@ async function removeFavorite(contentId, contentType) {
     }
 }
 
-function updateFavoritesCount() {
+function findFavoriteItem(contentId, contentType) {
+    return Array.from(document.querySelectorAll('.favorite-item')).find(item => {
+        const removeBtn = item.querySelector('.btn-remove-favorite');
+        return removeBtn &&
+            removeBtn.dataset.contentId === contentId &&
+            removeBtn.dataset.contentType === contentType;
+    }) || null;
+}
+
+function updateFavoritesCount(delta = -1) {
     const count = document.querySelectorAll('.favorite-item').length;
     const countElement = document.querySelector('.favorites-header p');
 
+    // El total viene del servidor: con paginación no todos los favoritos están en pantalla
     if (countElement) {
-        countElement.textContent = `Total: ${count} items`;
+        const total = parseInt(countElement.textContent.replace(/\D/g, ''), 10) || count - delta;
+        countElement.textContent = `Total: ${Math.max(total + delta, 0)} items`;
     }
 
     // Si no hay favoritos, mostrar estado vacío
+    const grid = document.querySelector('.favorites-grid');
+    if (count === 0 && grid && grid.dataset.nextCursor) {
+        loadNextPage(grid);
+        return;
+    }
+
     if (count === 0) {
-        const grid = document.querySelector('.favorites-grid');
         if (grid) {
             grid.innerHTML = `
                 <div class="empty-state">
@@ -92,12 +179,50 @@ function updateFavoritesCount() {
     }
 }
 
-//Manejar la actualización del contador desde el servidor
-async function refreshFavoritesList() {
-    try {
-        // Recargar la página para obtener los favoritos actualizados
-        window.location.reload();
-    } catch (error) {
-        console.error('Error refreshing favorites:', error);
+// ===== CAMBIOS EN VIVO =====
+// Altas y bajas hechas en otras pestañas (o en el dashboard) llegan por SSE y se aplican sobre la lista
+// sin recargar. EventSource reconecta solo si el servidor cierra la conexión
+function setupLiveUpdates() {
+    if (!window.EventSource || !document.querySelector('.favorites-header')) return;
+
+    const source = new EventSource('/user/favorites/events');
+    source.addEventListener('favorite', (event) => {
+        try {
+            applyFavoriteChange(JSON.parse(event.data));
+        } catch (error) {
+            console.error('Error applying favorite change:', error);
+        }
+    });
+    window.addEventListener('beforeunload', () => source.close());
+}
+
+function applyFavoriteChange(change) {
+    const existing = findFavoriteItem(change.contentId, change.contentType);
+
+    // La pestaña que hizo el cambio ya lo aplicó: el evento llega repetido y se ignora
+    if (change.action === 'removed') {
+        if (existing) {
+            existing.remove();
+            updateFavoritesCount(-1);
+        }
+        return;
     }
-}
\ No newline at end of file
+
+    if (change.action !== 'added' || existing) return;
+
+    let grid = document.querySelector('.favorites-grid');
+    if (!grid) {
+        // Lista vacía: el estado vacío de la plantilla se sustituye por la cuadrícula
+        const emptyState = document.querySelector('.empty-state');
+        if (!emptyState) return;
+        grid = document.createElement('div');
+        grid.className = 'favorites-grid';
+        grid.dataset.nextCursor = '';
+        emptyState.replaceWith(grid);
+    } else {
+        grid.querySelector('.empty-state')?.remove();
+    }
+
+    grid.insertAdjacentHTML('afterbegin', createFavoriteItem(change));
+    updateFavoritesCount(1);
+}
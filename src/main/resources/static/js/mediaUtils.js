@@ -4,7 +4,8 @@ export async function toggleFavorite(button) {
     const id = button.dataset.id;
     const type = button.dataset.type;
     const title = button.closest('.card').querySelector('h4').title;
-    const img = button.closest('.card').querySelector('img').src;
+    const cardImg = button.closest('.card').querySelector('img');
+    const img = cardImg.dataset.original || cardImg.src;
     const score = button.closest('.card').querySelector('.rating span').textContent;
     const year = button.closest('.card').querySelector('.year')?.textContent || '0';
 
@@ -49,7 +50,7 @@ export async function toggleFavorite(button) {
         console.error('Error:', error);
         showNotification('Error de conexión', 'error');
         // Fallback a localStorage
-        toggleLocalFavorite(button);
+        toggleLocalFavorite(button, { title, imageUrl: img, score: parseFloat(score) || 0, year: parseInt(year) || 0 });
     }
 }
 
@@ -73,7 +74,7 @@ function syncWithLocalStorage(contentId, contentType, isFavorite) {
     localStorage.setItem('favorites', JSON.stringify(favorites));
 }
 
-function toggleLocalFavorite(button) {
+function toggleLocalFavorite(button, details = {}) {
     const icon = button.querySelector('i');
     const id = button.dataset.id;
     const type = button.dataset.type;
@@ -84,6 +85,7 @@ function toggleLocalFavorite(button) {
     if (!exists) {
         favorites.push({ id, type, addedAt: new Date().toISOString() });
         localStorage.setItem('favorites', JSON.stringify(favorites));
+        queueFavoriteOperation({ action: 'add', contentId: id, contentType: type, ...details });
         button.classList.add('favorited');
         icon.classList.remove('far');
         icon.classList.add('fas');
@@ -91,6 +93,7 @@ function toggleLocalFavorite(button) {
     } else {
         const filtered = favorites.filter(f => !(f.id == id && f.type == type));
         localStorage.setItem('favorites', JSON.stringify(filtered));
+        queueFavoriteOperation({ action: 'remove', contentId: id, contentType: type });
         button.classList.remove('favorited');
         icon.classList.remove('fas');
         icon.classList.add('far');
@@ -98,6 +101,75 @@ function toggleLocalFavorite(button) {
     }
 }
 
+// ===== SINCRONIZACIÓN SIN CONEXIÓN =====
+// Los cambios hechos sin conexión se guardan como operaciones con su hora y se envían juntas al volver.
+// El servidor aplica last-writer-wins y devuelve solo lo que cambió desde el último token
+const PENDING_KEY = 'favoritesPending';
+const SYNC_TOKEN_KEY = 'favoritesSyncToken';
+let syncInProgress = null;
+
+function queueFavoriteOperation(operation) {
+    const pending = JSON.parse(localStorage.getItem(PENDING_KEY) || '[]');
+    pending.push({ ...operation, timestamp: new Date().toISOString() });
+    localStorage.setItem(PENDING_KEY, JSON.stringify(pending));
+}
+
+export function syncFavorites() {
+    // Una sola sincronización a la vez: las llamadas seguidas esperan a la que está en curso
+    if (!syncInProgress) {
+        syncInProgress = doSyncFavorites().finally(() => { syncInProgress = null; });
+    }
+    return syncInProgress;
+}
+
+async function doSyncFavorites() {
+    const pending = JSON.parse(localStorage.getItem(PENDING_KEY) || '[]');
+    try {
+        const response = await fetch('/user/favorites/sync', {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+            },
+            body: JSON.stringify({
+                since: localStorage.getItem(SYNC_TOKEN_KEY),
+                operations: pending
+            })
+        });
+        // Sin sesión la petición acaba en la página de login
+        if (response.redirected || !response.headers.get('Content-Type')?.includes('application/json')) return false;
+
+        const result = await response.json();
+        if (!result.success) return false;
+
+        // Se quitan solo las operaciones enviadas; las hechas durante la petición quedan para la próxima
+        const remaining = JSON.parse(localStorage.getItem(PENDING_KEY) || '[]').slice(pending.length);
+        localStorage.setItem(PENDING_KEY, JSON.stringify(remaining));
+        localStorage.setItem(SYNC_TOKEN_KEY, result.token);
+        applyFavoriteChanges(result.changes, result.reset);
+        return true;
+    } catch (error) {
+        console.error('Error syncing favorites:', error);
+        return false;
+    }
+}
+
+function applyFavoriteChanges(changes, reset) {
+    let favorites = reset ? [] : getFavorites();
+    changes.forEach(change => {
+        favorites = favorites.filter(f => !(f.id == change.contentId && f.type == change.contentType));
+        if (change.action === 'added') {
+            favorites.push({ id: change.contentId, type: change.contentType, addedAt: change.changedAt });
+        }
+    });
+    localStorage.setItem('favorites', JSON.stringify(favorites));
+}
+
+// Al recuperar la conexión, o al cargar la página si quedó algo pendiente o ya hubo una sincronización
+window.addEventListener('online', syncFavorites);
+if (localStorage.getItem(PENDING_KEY) !== null || localStorage.getItem(SYNC_TOKEN_KEY) !== null) {
+    syncFavorites();
+}
+
 export async function checkFavoriteStatus(contentId, contentType) {
     try {
         const response = await fetch(`/user/favorites/check?contentId=${contentId}&contentType=${contentType}`);
@@ -111,6 +183,59 @@ export async function checkFavoriteStatus(contentId, contentType) {
     }
 }
 
+// Máximo de tarjetas por petición que acepta /user/favorites/check-batch
+const CHECK_BATCH_SIZE = 200;
+
+// Consulta el estado de favorito de muchas tarjetas en una sola petición (o en tandas si son más del máximo)
+export async function checkFavoriteStatuses(items) {
+    if (!items.length) return {};
+
+    try {
+        const statuses = {};
+        for (let i = 0; i < items.length; i += CHECK_BATCH_SIZE) {
+            const response = await fetch('/user/favorites/check-batch', {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                },
+                body: JSON.stringify({ items: items.slice(i, i + CHECK_BATCH_SIZE) })
+            });
+            const result = await response.json();
+            Object.assign(statuses, result.favorites || {});
+        }
+        return statuses;
+    } catch (error) {
+        console.error('Error checking favorites:', error);
+        // Fallback a localStorage
+        const favorites = getFavorites();
+        const statuses = {};
+        items.forEach(({ contentId, contentType }) => {
+            statuses[`${contentType}:${contentId}`] = favorites.some(f => f.id == contentId && f.type == contentType);
+        });
+        return statuses;
+    }
+}
+
+// Marca los corazones de todas las tarjetas de un contenedor
+export async function applyFavoriteStatuses(container) {
+    const cards = [...container.querySelectorAll('.card')];
+    const items = cards.map(card => ({ contentId: card.dataset.id, contentType: card.dataset.type }));
+    const statuses = await checkFavoriteStatuses(items);
+
+    cards.forEach(card => {
+        if (statuses[`${card.dataset.type}:${card.dataset.id}`]) {
+            markCardAsFavorite(card);
+        }
+    });
+}
+
+function markCardAsFavorite(card) {
+    const heartIcon = card.querySelector('.btn-favorite i');
+    heartIcon.classList.remove('far');
+    heartIcon.classList.add('fas');
+    card.querySelector('.btn-favorite').classList.add('favorited');
+}
+
 export function getFavorites() {
     return JSON.parse(localStorage.getItem('favorites') || '[]');
 }
@@ -160,7 +285,7 @@ export function showNotification(msg, type = 'success', duration = 2000) {
 }
 
 // ===== FUNCIONES DE TARJETAS =====
-export async function createMediaCard(media, type) {
+export async function createMediaCard(media, type, { checkFavorite = true } = {}) {
     const card = document.createElement('div');
     card.className = 'card';
     card.setAttribute('role', 'listitem');
@@ -169,7 +294,8 @@ export async function createMediaCard(media, type) {
 
     const title = escapeHtml(media.title || media.name || 'Sin título');
     const shortTitle = escapeHtmlShort(title, 30);
-    const img = media.imageUrl || media.images?.jpg?.image_url || media.image_url || `/img/placeholder-${type}.jpg`;
+    const originalImg = media.imageUrl || media.images?.jpg?.image_url || media.image_url || `/img/placeholder-${type}.jpg`;
+    const img = coverUrl(originalImg, type, 'small');
     const score = media.score ?? media.rating ?? 'N/A';
     const year = formatDate(media);
     
@@ -193,7 +319,7 @@ export async function createMediaCard(media, type) {
 
     card.innerHTML = `
         <div class="card-image">
-            <img loading="lazy" src="${img}" alt="${title}" 
+            <img loading="lazy" src="${img}" data-original="${escapeHtml(originalImg)}" alt="${title}" 
                  onerror="this.src='/img/placeholder-${type}.jpg'">
             <div class="card-overlay">
                 <h4 title="${title}">${shortTitle}</h4>
@@ -211,13 +337,9 @@ export async function createMediaCard(media, type) {
         </div>
     `;
 
-    // Verificar si es favorito (usando el nuevo sistema)
-    const isFav = await checkFavoriteStatus(card.dataset.id, type);
-    if (isFav) {
-        const heartIcon = card.querySelector('.btn-favorite i');
-        heartIcon.classList.remove('far');
-        heartIcon.classList.add('fas');
-        card.querySelector('.btn-favorite').classList.add('favorited');
+    // Verificar si es favorito (las cuadrículas lo hacen en lote con applyFavoriteStatuses)
+    if (checkFavorite && await checkFavoriteStatus(card.dataset.id, type)) {
+        markCardAsFavorite(card);
     }
 
     return card;
@@ -228,7 +350,7 @@ export async function renderCarouselItems(list, container, type) {
     
     // Crear todas las tarjetas de forma asíncrona
     const cardPromises = list.map(async (media) => {
-        return await createMediaCard(media, type);
+        return await createMediaCard(media, type, { checkFavorite: false });
     });
     
     // Esperar a que todas las tarjetas se creen
@@ -238,6 +360,9 @@ export async function renderCarouselItems(list, container, type) {
     cards.forEach(card => {
         container.appendChild(card);
     });
+
+    // Un único chequeo de favoritos para todo el carrusel
+    await applyFavoriteStatuses(container);
 }
 
 // ===== FUNCIONES DE NAVEGACIÓN =====
@@ -259,6 +384,15 @@ export function isValidType(type) {
     return ['anime', 'manga'].includes(type);
 }
 
+// ===== PORTADAS =====
+// Las portadas externas pasan por /api/images, que las guarda en disco y genera miniaturas;
+// las rutas locales (placeholders) se dejan tal cual
+export function coverUrl(url, type = 'anime', size = 'medium') {
+    if (!url) return `/img/placeholder-${type}.jpg`;
+    if (!/^https?:\/\//.test(url)) return url;
+    return `/api/images?url=${encodeURIComponent(url)}&size=${size}&type=${type}`;
+}
+
 // ===== FUNCIONES DE FORMATO =====
 export function formatDate(media) {
     if (!media) return '';
@@ -339,9 +473,12 @@ export default {
     // Favoritos
     toggleFavorite,
     checkFavoriteStatus,
+    checkFavoriteStatuses,
+    applyFavoriteStatuses,
     getFavorites,
     isFavorite,
     removeFavorite,
+    syncFavorites,
 
     // Notificaciones
     showNotification,
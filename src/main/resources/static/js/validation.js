@@ -332,4 +332,17 @@ function hasSpecialCharsSequence(text) {
     }
 
     return false;
-}
\ No newline at end of file
+}
+
+// Comprueba en el servidor si el nombre de usuario o el email ya están en uso.
+// Devuelve true/false, o null si no se pudo comprobar (el registro lo volverá a validar)
+export async function checkAvailability(field, value) {
+    try {
+        const response = await fetch(`/api/users/availability?${field}=${encodeURIComponent(value)}`);
+        if (!response.ok) return null;
+        const data = await response.json();
+        return data[field] ?? null;
+    } catch (error) {
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void hashesOnThePoolAndRecordsLatency() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4)) {
+            encoder.bindTo(registry);
+            String hash = encoder.encode("Secreto!1");
+
+            assertTrue(encoder.matches("Secreto!1", hash));
+            assertFalse(encoder.matches("otra", hash));
+
+            Timer timer = registry.get("mangaverse.password.hashing").timer();
+            assertEquals(3, timer.count());
+            assertTrue(timer.mean(TimeUnit.MILLISECONDS) > 0);
+            assertTrue(timer.max(TimeUnit.MILLISECONDS) >= timer.mean(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void failsFastWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (encoder.getQueueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+
+            long start = System.nanoTime();
+            assertThrows(BoundedPasswordEncoder.BusyException.class, () -> encoder.matches("c", "x"));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+            assertEquals(1, encoder.getRejectedCount());
+            assertEquals(1, encoder.getActiveCount());
+
+            release.countDown();
+            assertEquals("hash-a", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash-b", queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void upgradeIsRequestedOnlyForWeakerHashes() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(6), 1, 1)) {
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("x")));
+            assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("x")));
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.services.FavoriteShards;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fechas escritas en hora de Madrid (verano UTC+2, invierno UTC+1) en la base principal y en un shard
+class FavoriteTimestampMigrationTest {
+
+    private static final LocalDateTime SUMMER = LocalDateTime.of(2026, 7, 1, 12, 0);
+    private static final LocalDateTime WINTER = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    @Test
+    void legacyLocalTimesAreConvertedOnceOnEveryDatabase() throws Exception {
+        DataSource main = database("utc_main", true);
+        DataSource shard = database("utc_shard", true);
+        for (DataSource dataSource : List.of(main, shard)) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.update("INSERT INTO favorites (id, user_id, content_id, content_type, added_at, updated_at) VALUES (1, 1, '1', 'anime', ?, ?)",
+                    SUMMER, WINTER);
+            jdbc.update("INSERT INTO favorite_tombstones (user_id, content_id, content_type, deleted_at) VALUES (1, '2', 'manga', ?)",
+                    WINTER);
+        }
+
+        migration(main, shard).afterPropertiesSet();
+        migration(main, shard).afterPropertiesSet();
+
+        for (DataSource dataSource : List.of(main, shard)) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            assertEquals(LocalDateTime.of(2026, 7, 1, 10, 0),
+                    jdbc.queryForObject("SELECT added_at FROM favorites WHERE id = 1", LocalDateTime.class));
+            assertEquals(LocalDateTime.of(2026, 1, 15, 11, 0),
+                    jdbc.queryForObject("SELECT updated_at FROM favorites WHERE id = 1", LocalDateTime.class));
+            assertEquals(LocalDateTime.of(2026, 1, 15, 11, 0),
+                    jdbc.queryForObject("SELECT deleted_at FROM favorite_tombstones", LocalDateTime.class));
+        }
+    }
+
+    @Test
+    void newDatabasesOnlyRecordTheMigration() throws Exception {
+        DataSource main = database("utc_new", false);
+        migration(main).afterPropertiesSet();
+
+        // Hibernate crea las tablas después y las filas ya se escriben en UTC
+        new ResourceDatabasePopulator(new ClassPathResource("db/favorites-shard-schema.sql")).execute(main);
+        JdbcTemplate jdbc = new JdbcTemplate(main);
+        jdbc.update("INSERT INTO favorites (id, user_id, content_id, content_type, added_at, updated_at) VALUES (1, 1, '1', 'anime', ?, ?)",
+                SUMMER, SUMMER);
+        migration(main).afterPropertiesSet();
+
+        assertEquals(SUMMER, jdbc.queryForObject("SELECT added_at FROM favorites WHERE id = 1", LocalDateTime.class));
+        assertEquals(FavoriteTimestampMigration.MIGRATION,
+                jdbc.queryForObject("SELECT name FROM favorite_migrations", String.class));
+    }
+
+    private static FavoriteTimestampMigration migration(DataSource main, DataSource... shards) {
+        return new FavoriteTimestampMigration(main, new FavoriteShards(List.of(shards)), "Europe/Madrid");
+    }
+
+    private static DataSource database(String name, boolean withSchema) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE", "sa", "");
+        if (withSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/favorites-shard-schema.sql")).execute(dataSource);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,134 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import com.manga.springboot.di.app.mangaverse.services.FavoriteService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Dos H2 en memoria hacen de principal y réplica; la "replicación" es un SCRIPT/RUNSCRIPT manual,
+// así la réplica va por detrás de todo lo que se escribe después de cada copia
+@SpringBootTest(properties = {
+        "db.replica.url=jdbc:h2:mem:manga_verse_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+        "db.replica.read-your-writes=1m"
+})
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private Replication replication;
+
+    private User user;
+
+    // Copia la principal en la réplica. También al arrancar, antes de las primeras lecturas de solo lectura
+    @TestConfiguration
+    static class Replication {
+
+        @Autowired
+        @Qualifier("primaryDataSource")
+        private DataSource primary;
+
+        @Autowired
+        @Qualifier("replicaDataSource")
+        private DataSource replica;
+
+        @EventListener(ContextRefreshedEvent.class)
+        void replicate() throws IOException {
+            Path script = Files.createTempFile("mangaverse-primary", ".sql");
+            try {
+                new JdbcTemplate(primary).execute("SCRIPT TO '" + script + "'");
+                JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+                replicaJdbc.execute("DROP ALL OBJECTS");
+                replicaJdbc.execute("RUNSCRIPT FROM '" + script + "'");
+            } finally {
+                Files.delete(script);
+            }
+        }
+    }
+
+    @BeforeEach
+    void createUser() throws IOException {
+        user = userRepository.save(new User("lectora", "lectora@test.com", "Secreto!1"));
+        replication.replicate();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        favoriteRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyQueriesGoToTheReplica() {
+        favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+
+        // La réplica aún no tiene el favorito, la principal sí
+        assertEquals(List.of(), favoriteService.getUserFavorites(user));
+        assertEquals(1, new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM favorites", Integer.class));
+    }
+
+    @Test
+    @Order(2)
+    void usersReadTheirOwnWritesFromThePrimary() {
+        CustomUserDetails details = new CustomUserDetails(user.getId(), "lectora", "lectora@test.com", "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, List.of()));
+
+        favoriteService.toggleFavorite(user, "2", "manga", "Dos", null, 7.5, 2019);
+
+        assertEquals(1, favoriteService.getUserFavorites(user).size());
+    }
+
+    @Test
+    @Order(3)
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() throws Exception {
+        favoriteService.addFavorite(user, "3", "anime", "Tres", null, 9.0, 2021);
+        replica.unwrap(HikariDataSource.class).close();
+
+        assertEquals(1, favoriteService.getUserFavorites(user).size());
+    }
+}
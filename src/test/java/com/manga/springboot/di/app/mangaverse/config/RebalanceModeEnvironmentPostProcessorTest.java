@@ -0,0 +1,57 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import com.manga.springboot.di.app.mangaverse.MangaverseApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RebalanceModeEnvironmentPostProcessorTest {
+
+    private final RebalanceModeEnvironmentPostProcessor postProcessor = new RebalanceModeEnvironmentPostProcessor();
+
+    @Test
+    void rebalanceRunsWithoutWebServerOrScheduledJobs() {
+        StandardEnvironment environment = environment(Map.of("favorites.shards.rebalance", "true", "catalog.ingest.enabled", "true"));
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("none", environment.getProperty("spring.main.web-application-type"));
+        assertEquals("false", environment.getProperty("catalog.ingest.enabled"));
+        assertEquals("false", environment.getProperty("dashboard.snapshot.enabled"));
+        assertEquals("false", environment.getProperty("recommendations.enabled"));
+    }
+
+    @Test
+    void normalStartupIsUntouched() {
+        StandardEnvironment environment = environment(Map.of("favorites.shards.rebalance", "false"));
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertNull(environment.getProperty("spring.main.web-application-type"));
+    }
+
+    // Lo que hace el modo rebalanceo: el contexto sin servidor web tiene que arrancar (sin cadenas de seguridad web)
+    @Test
+    void applicationStartsWithoutWebServer() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MangaverseApplication.class)
+                .properties("spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:rebalance_mode;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE")
+                .run()) {
+            assertFalse(context instanceof WebServerApplicationContext);
+            assertNotNull(context.getBean(PasswordEncoder.class));
+        }
+    }
+
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+}
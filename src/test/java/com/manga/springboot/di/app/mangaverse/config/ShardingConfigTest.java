@@ -0,0 +1,30 @@
+package com.manga.springboot.di.app.mangaverse.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardingConfigTest {
+
+    private static final String MAIN = "jdbc:mysql://localhost:3306/manga_verse?useSSL=false&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true&useCursorFetch=true";
+
+    @Test
+    void shardsInheritTheMainUrlParameters() {
+        assertEquals("jdbc:mysql://db1:3306/fav0?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true&useCursorFetch=true",
+                ShardingConfig.withMainParameters("jdbc:mysql://db1:3306/fav0", MAIN));
+    }
+
+    @Test
+    void parametersOfTheShardWin() {
+        assertEquals("jdbc:mysql://db1:3306/fav0?useSSL=true&ServerTimezone=Europe/Madrid&rewriteBatchedStatements=true&useCursorFetch=true",
+                ShardingConfig.withMainParameters("jdbc:mysql://db1:3306/fav0?useSSL=true&ServerTimezone=Europe/Madrid", MAIN));
+    }
+
+    @Test
+    void urlsWithoutQueryParametersAreLeftAlone() {
+        String h2 = "jdbc:h2:mem:fav0;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        assertEquals(h2, ShardingConfig.withMainParameters(h2, "jdbc:h2:mem:main;MODE=MySQL"));
+        assertEquals(h2, ShardingConfig.withMainParameters(h2, null));
+    }
+}
@@ -0,0 +1,54 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithAnOlderCost() throws Exception {
+        userRepository.save(new User("antiguo", "antiguo@test.com", new BCryptPasswordEncoder(4).encode("Secreto!1")));
+
+        mockMvc.perform(formLogin("/auth/login").userParameter("email").user("antiguo@test.com").password("Secreto!1"))
+                .andExpect(authenticated());
+
+        String stored = userRepository.findByEmail("antiguo@test.com").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$2a$10$"), stored);
+        assertTrue(new BCryptPasswordEncoder().matches("Secreto!1", stored));
+    }
+
+    @Test
+    void wrongPasswordsStillRedirectToTheLoginForm() throws Exception {
+        userRepository.save(new User("lector", "lector@test.com", new BCryptPasswordEncoder(4).encode("Secreto!1")));
+
+        mockMvc.perform(formLogin("/auth/login").userParameter("email").user("lector@test.com").password("otra"))
+                .andExpect(unauthenticated())
+                .andExpect(redirectedUrl("/auth/login?error=true"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.DashboardSnapshotService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Jikan simulado; la ingesta programada está desactivada en pruebas y se llama a refresh() a mano
+@SpringBootTest(properties = "jikan.cache.ttl=1ms")
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DashboardApiControllerTest {
+
+    private static final HttpServer server = startStub();
+    private static final AtomicInteger upstreamCalls = new AtomicInteger();
+    private static volatile boolean mangaDown;
+
+    @DynamicPropertySource
+    static void jikanStub(DynamicPropertyRegistry registry) {
+        registry.add("jikan.api.base-url", () -> "http://localhost:" + server.getAddress().getPort() + "/v4");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardSnapshotService snapshotService;
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    @Order(1)
+    void servesPrecomputedBytesWithoutTouchingJikan() throws Exception {
+        mockMvc.perform(get("/api/dashboard")).andExpect(status().isServiceUnavailable());
+
+        snapshotService.refresh();
+        int callsAfterBuild = upstreamCalls.get();
+        assertEquals(6, callsAfterBuild);
+
+        MvcResult plain = mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.anime.airing[0].title").value("airing"))
+                .andExpect(jsonPath("$.anime.airing[0].trailer").doesNotExist())
+                .andExpect(jsonPath("$.manga.latest[0].mal_id").value(1))
+                .andExpect(jsonPath("$.limits.anime.upcoming").value(12))
+                .andReturn();
+        String etag = plain.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        MvcResult gzip = mockMvc.perform(get("/api/dashboard").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+        String gzipEtag = gzip.getResponse().getHeader("ETag");
+        assertEquals(etag.substring(0, etag.length() - 1) + "-gz\"", gzipEtag);
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray())).readAllBytes();
+        assertArrayEquals(plain.getResponse().getContentAsByteArray(), unzipped);
+
+        mockMvc.perform(get("/api/dashboard").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/dashboard").header("If-None-Match", gzipEtag).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", gzipEtag));
+        // Cada ETag solo vale para su representación
+        mockMvc.perform(get("/api/dashboard").header("If-None-Match", gzipEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/api/dashboard").header("If-None-Match", etag).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", gzipEtag));
+
+        assertEquals(callsAfterBuild, upstreamCalls.get());
+    }
+
+    @Test
+    @Order(2)
+    void unchangedDataKeepsTheEtagAndFailedSectionsKeepTheLastGoodVersion() throws Exception {
+        String etag = snapshotService.refresh().etag();
+        assertEquals(etag, snapshotService.refresh().etag());
+
+        mangaDown = true;
+        try {
+            snapshotService.refresh();
+        } finally {
+            mangaDown = false;
+        }
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$.manga.top[0].title").value("top"));
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/v4/", exchange -> {
+                upstreamCalls.incrementAndGet();
+                String path = exchange.getRequestURI().getPath();
+                String query = exchange.getRequestURI().getQuery();
+                boolean manga = path.contains("manga");
+                String name = query.contains("filter=") ? query.replaceAll(".*filter=([a-z]+).*", "$1")
+                        : path.startsWith("/v4/top") ? "top" : "latest";
+
+                int status = manga && mangaDown ? 500 : 200;
+                String body = status == 500 ? "{}"
+                        : "{\"data\":[{\"mal_id\":1,\"title\":\"" + name + "\",\"score\":8.1,\"trailer\":{\"url\":\"x\"}}]}";
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Jikan simulado: cada parte tarda 300 ms, /reviews no llega a tiempo y /recommendations falla
+@SpringBootTest(properties = "jikan.details.timeout=1s")
+@AutoConfigureMockMvc
+class DetailsApiControllerTest {
+
+    private static final HttpServer server = startStub();
+
+    @DynamicPropertySource
+    static void jikanStub(DynamicPropertyRegistry registry) {
+        registry.add("jikan.api.base-url", () -> "http://localhost:" + server.getAddress().getPort() + "/v4");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void mergesThePartsFetchedInParallelAndDegradesTheFailedOnes() throws Exception {
+        long start = System.currentTimeMillis();
+        mockMvc.perform(get("/api/details/anime/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("anime 1"))
+                .andExpect(jsonPath("$.statistics.path").value("/v4/anime/1/statistics"))
+                .andExpect(jsonPath("$.relations.path").value("/v4/anime/1/relations"))
+                .andExpect(jsonPath("$.reviews").doesNotExist())
+                .andExpect(jsonPath("$.recommendations").doesNotExist())
+                .andExpect(jsonPath("$.missing.length()").value(2));
+        long elapsed = System.currentTimeMillis() - start;
+
+        // En serie serían al menos 4 x 300 ms más el timeout de /reviews
+        assertTrue(elapsed < 2_000, "la ficha tardó " + elapsed + " ms");
+    }
+
+    @Test
+    void unknownTitlesAndKindsAreNotFound() throws Exception {
+        mockMvc.perform(get("/api/details/manga/404")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/details/novels/1")).andExpect(status().isNotFound());
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.setExecutor(Executors.newCachedThreadPool());
+            stub.createContext("/v4/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                int status = 200;
+                String body;
+                try {
+                    Thread.sleep(path.endsWith("/reviews") ? 3_000 : 300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (path.contains("/404/")) {
+                    status = 404;
+                    body = "{\"status\":404}";
+                } else if (path.endsWith("/recommendations")) {
+                    status = 500;
+                    body = "{\"status\":500}";
+                } else if (path.endsWith("/full")) {
+                    String[] segments = path.split("/");
+                    body = "{\"data\":{\"title\":\"" + segments[2] + " " + segments[3] + "\"}}";
+                } else {
+                    body = "{\"data\":{\"path\":\"" + path + "\"}}";
+                }
+
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.config.CustomUserDetailsService;
+import com.manga.springboot.di.app.mangaverse.config.QueryStats;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FavoriteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    private static final int TOGGLE_BUDGET = 3;
+    private static final int PAGE_BUDGET = 2;
+    private static final int CHECK_BUDGET = 1;
+
+    private UserDetails principal;
+
+    @BeforeEach
+    void login() {
+        userRepository.save(new User("lector", "lector@test.com", "Secreto!1"));
+        principal = userDetailsService.loadUserByUsername("lector@test.com");
+        clearInvocations(userRepository);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        favoriteRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void authenticatedPagesDoNotLookUpTheUser() throws Exception {
+        mockMvc.perform(get("/user/dashboard").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("username", "lector"));
+
+        mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"1\",\"contentType\":\"anime\",\"title\":\"Uno\",\"score\":8.5,\"year\":2020}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.isFavorite").value(true));
+
+        mockMvc.perform(get("/user/favorites/check").with(user(principal))
+                .param("contentId", "1").param("contentType", "anime"))
+                .andExpect(jsonPath("$.isFavorite").value(true));
+
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findById(any());
+    }
+
+    // Una cuadrícula por petición; listas mayores que el máximo se rechazan con 400
+    @Test
+    void checkBatchIsCappedAtTheGridSize() throws Exception {
+        mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"1\",\"contentType\":\"anime\"}"));
+
+        mockMvc.perform(post("/user/favorites/check-batch").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(checkItems(FavoriteController.MAX_CHECK_ITEMS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favorites['anime:1']").value(true))
+                .andExpect(jsonPath("$.favorites['anime:2']").value(false));
+
+        mockMvc.perform(post("/user/favorites/check-batch").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(checkItems(FavoriteController.MAX_CHECK_ITEMS + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    private static String checkItems(int count) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 1; i <= count; i++) {
+            json.append(i > 1 ? "," : "").append("{\"contentId\":\"").append(i).append("\",\"contentType\":\"anime\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @Test
+    void favoritesPageRendersFirstPageAndLinksTheNext() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"contentId\":\"" + i + "\",\"contentType\":\"manga\",\"title\":\"T" + i + "\"}"));
+        }
+
+        mockMvc.perform(get("/user/favorites").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("totalFavorites", 30L))
+                .andExpect(model().attribute("nextCursor", notNullValue()));
+
+        mockMvc.perform(get("/user/favorites/page").with(user(principal)).param("size", "50"))
+                .andExpect(jsonPath("$.items.length()").value(30))
+                .andExpect(jsonPath("$.items[0].addedAt").value(matchesPattern("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    // Presupuesto de sentencias SQL por endpoint: el favorito sin usuario cargado, la página sin N+1
+    @Test
+    void favoriteEndpointsStayWithinQueryBudget() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"contentId\":\"" + i + "\",\"contentType\":\"anime\",\"title\":\"T" + i + "\"}"));
+        }
+
+        assertThat(statements(mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"99\",\"contentType\":\"anime\",\"title\":\"Nuevo\"}"))))
+                .isLessThanOrEqualTo(TOGGLE_BUDGET);
+        assertThat(statements(mockMvc.perform(get("/user/favorites").with(user(principal)))))
+                .isLessThanOrEqualTo(PAGE_BUDGET);
+        assertThat(statements(mockMvc.perform(get("/user/favorites/page").with(user(principal)).param("size", "50"))))
+                .isLessThanOrEqualTo(PAGE_BUDGET);
+        assertThat(statements(mockMvc.perform(get("/user/favorites/check").with(user(principal))
+                .param("contentId", "1").param("contentType", "anime"))))
+                .isLessThanOrEqualTo(CHECK_BUDGET);
+    }
+
+    // Dos pestañas abiertas reciben el alta y la baja por SSE, sin recargar la lista
+    @Test
+    void favoriteChangesArePushedToEveryOpenTab() throws Exception {
+        MockHttpServletResponse first = openEventStream();
+        MockHttpServletResponse second = openEventStream();
+
+        mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"7\",\"contentType\":\"manga\",\"title\":\"Siete\",\"year\":2001}"))
+                .andExpect(jsonPath("$.isFavorite").value(true));
+        mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"7\",\"contentType\":\"manga\"}"))
+                .andExpect(jsonPath("$.isFavorite").value(false));
+
+        for (MockHttpServletResponse tab : new MockHttpServletResponse[] { first, second }) {
+            String stream = await(tab, body -> body.contains("\"action\":\"removed\""));
+            assertThat(stream).contains("event:favorite");
+            assertThat(stream).contains("\"action\":\"added\",\"contentId\":\"7\",\"contentType\":\"manga\",\"title\":\"Siete\"");
+            assertThat(stream.indexOf("\"added\"")).isLessThan(stream.indexOf("\"removed\""));
+        }
+    }
+
+    // Exportar, vaciar la lista e importar el mismo fichero devuelve los mismos favoritos
+    @Test
+    void exportedListsCanBeImportedBack() throws Exception {
+        mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"1\",\"contentType\":\"anime\",\"title\":\"Uno, \\\"el primero\\\"\",\"score\":8.5,\"year\":2020}"));
+        mockMvc.perform(post("/user/favorites/toggle").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contentId\":\"2\",\"contentType\":\"manga\",\"title\":\"Dos\"}"));
+
+        String csv = withoutDates(export("csv"));
+        String json = withoutDates(export("json"));
+        assertThat(csv).contains("1,anime,\"Uno, \"\"el primero\"\"\",,8.5,2020,");
+
+        for (String format : new String[] { "csv", "json" }) {
+            byte[] exported = export(format);
+            mockMvc.perform(delete("/user/favorites/remove").with(user(principal))
+                    .param("contentId", "1").param("contentType", "anime"));
+            mockMvc.perform(delete("/user/favorites/remove").with(user(principal))
+                    .param("contentId", "2").param("contentType", "manga"));
+
+            mockMvc.perform(multipart("/user/favorites/import")
+                    .file(new MockMultipartFile("file", "favoritos." + format, null, exported))
+                    .with(user(principal)))
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.duplicates").value(0));
+        }
+
+        assertThat(withoutDates(export("csv"))).isEqualTo(csv);
+        assertThat(withoutDates(export("json"))).isEqualTo(json);
+    }
+
+    @Test
+    void importSkipsDuplicatesAndInvalidRowsWithoutAborting() throws Exception {
+        String csv = """
+                contentType,contentId,title,score
+                anime,1,Uno,8.5
+                anime,1,Uno otra vez,8.5
+                novela,2,Tipo raro,
+                manga,3,"Tres, con coma",no
+                anime,5,%s,
+                manga,4,"Cuatro
+                en dos líneas",7
+                """.formatted("x".repeat(256));
+        mockMvc.perform(multipart("/user/favorites/import")
+                .file(new MockMultipartFile("file", "lista.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                .with(user(principal)))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.invalid").value(3))
+                .andExpect(jsonPath("$.errors[0]").value("Línea 4: tipo no válido: novela"))
+                .andExpect(jsonPath("$.errors[2]").value("Línea 6: title demasiado largo (máximo 255 caracteres)"));
+
+        String exported = new String(export("csv"), StandardCharsets.UTF_8);
+        assertThat(exported).startsWith("contentId,contentType,title,imageUrl,score,year,addedAt\n");
+        assertThat(exported).containsPattern("4,manga,\"Cuatro\nen dos líneas\",,7.0,,\\d{4}-\\d{2}-\\d{2}T[\\d:.]+Z\n");
+    }
+
+    private byte[] export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/user/favorites/export").with(user(principal)).param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Listas largas: el límite de la petición asíncrona no es el de 30 s por defecto
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(10).toMillis());
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"favoritos." + format + "\""))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private static String withoutDates(byte[] exported) {
+        return new String(exported, StandardCharsets.UTF_8).replaceAll("\\d{4}-\\d{2}-\\d{2}T[\\d:.]+", "");
+    }
+
+    private MockHttpServletResponse openEventStream() throws Exception {
+        return mockMvc.perform(get("/user/favorites/events").with(user(principal)))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    // Los envíos salen en hilos virtuales: se espera a que lleguen
+    private static String await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String body = response.getContentAsString();
+        while (!condition.test(body) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        return body;
+    }
+
+    private static int statements(ResultActions result) throws Exception {
+        QueryStats stats = (QueryStats) result.andExpect(status().isOk()).andReturn()
+                .getRequest().getAttribute(QueryStats.REQUEST_ATTRIBUTE);
+        return stats.getStatements();
+    }
+}
@@ -0,0 +1,89 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Serialización JSON de las respuestas Map<String, Object> de FavoriteController
+// con un ObjectMapper configurado como el de Spring Boot.
+// mvn -Pbenchmark test-compile exec:exec -Djmh.include=FavoriteResponseBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FavoriteResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> toggleResponse;
+    private Map<String, Object> pageResponse;
+    private Map<String, Object> checkBatchResponse;
+
+    @Setup
+    public void buildResponses() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        // POST /user/favorites/toggle
+        toggleResponse = new HashMap<>();
+        toggleResponse.put("success", true);
+        toggleResponse.put("isFavorite", true);
+        toggleResponse.put("message", "Agregado a favoritos");
+
+        // GET /user/favorites/page (24 elementos)
+        List<FavoriteDTO> items = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < 24; i++) {
+            items.add(new FavoriteDTO((long) i, String.valueOf(1000 + i), i % 2 == 0 ? "anime" : "manga",
+                    "Título de ejemplo número " + i, "https://cdn.myanimelist.net/images/anime/" + i + "/1000" + i + ".jpg",
+                    7.0 + i / 10.0, 2000 + i, now.minusDays(i)));
+        }
+        pageResponse = new HashMap<>();
+        pageResponse.put("success", true);
+        pageResponse.put("items", items);
+        pageResponse.put("nextCursor", "MjAyNS0wMS0wMVQxMjowMHwyMw");
+
+        // POST /user/favorites/check-batch (una página de catálogo)
+        Map<String, Boolean> favorites = new LinkedHashMap<>();
+        for (int i = 0; i < 25; i++) {
+            favorites.put("anime:" + (5000 + i), i % 3 == 0);
+        }
+        checkBatchResponse = new HashMap<>();
+        checkBatchResponse.put("success", true);
+        checkBatchResponse.put("favorites", favorites);
+    }
+
+    @Benchmark
+    public byte[] toggle() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toggleResponse);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+
+    @Benchmark
+    public byte[] checkBatch() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(checkBatchResponse);
+    }
+}
@@ -0,0 +1,62 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.services.ImageCacheService;
+import com.manga.springboot.di.app.mangaverse.services.ImageCacheService.CachedImage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImageProxyControllerTest {
+
+    private static final String COVER = "https://cdn.myanimelist.net/images/anime/1/1.jpg";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImageCacheService imageCacheService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void servesTheCachedFileWithStrongEtagAndLongCaching() throws Exception {
+        Path file = Files.write(dir.resolve("thumb.jpg"), new byte[]{(byte) 0xFF, (byte) 0xD8, 1, 2, 3});
+        when(imageCacheService.getImage(COVER, "small")).thenReturn(new CachedImage(file, "\"abc-small\"", "image/jpeg", 5));
+
+        mockMvc.perform(get("/api/images").param("url", COVER).param("size", "small"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-small\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(Files.readAllBytes(file)));
+
+        mockMvc.perform(get("/api/images").param("url", COVER).param("size", "small").header("If-None-Match", "\"abc-small\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void unavailableCoversRedirectToThePlaceholder() throws Exception {
+        when(imageCacheService.getImage(anyString(), eq("medium"))).thenThrow(new IllegalArgumentException("Host no permitido"));
+
+        mockMvc.perform(get("/api/images").param("url", "http://example.com/x.jpg").param("type", "manga"))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrl("/img/placeholder-manga.jpg"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.models.CatalogGenre;
+import com.manga.springboot.di.app.mangaverse.models.CatalogIngestState;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogIngestStateRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LocalCatalogControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogItemRepository itemRepository;
+
+    @Autowired
+    private CatalogIngestStateRepository stateRepository;
+
+    @BeforeEach
+    void seed() {
+        List<CatalogItem> items = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            CatalogItem item = new CatalogItem("anime", (long) i);
+            item.setTitle("Anime " + i);
+            item.setType(i % 3 == 0 ? "movie" : "tv");
+            item.setStatus(i % 2 == 0 ? "complete" : "airing");
+            item.setScore(5 + i / 10.0);
+            item.setYear(1990 + i);
+            item.setMembers(100L * i);
+            item.getGenres().add(new CatalogGenre(1, "Action"));
+            if (i % 5 == 0) {
+                item.getGenres().add(new CatalogGenre(22, "Romance"));
+            }
+            items.add(item);
+        }
+        itemRepository.saveAll(items);
+
+        CatalogIngestState state = new CatalogIngestState("anime");
+        state.setCompletedPasses(1);
+        stateRepository.save(state);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        stateRepository.deleteAll();
+    }
+
+    @Test
+    void filtersAndSortsFromTheLocalCatalog() throws Exception {
+        mockMvc.perform(get("/api/catalog/local/anime")
+                .param("genres", "1,22").param("type", "tv").param("order_by", "score").param("sort", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(4))
+                .andExpect(jsonPath("$.data[0].mal_id").value(25))
+                .andExpect(jsonPath("$.data[0].genres.length()").value(2))
+                .andExpect(jsonPath("$.pagination.has_next_page").value(false));
+    }
+
+    @Test
+    void defaultOrderIsMostPopularFirstAndPaginates() throws Exception {
+        mockMvc.perform(get("/api/catalog/local/anime").param("limit", "20"))
+                .andExpect(jsonPath("$.data.length()").value(20))
+                .andExpect(jsonPath("$.data[0].mal_id").value(30))
+                .andExpect(jsonPath("$.pagination.has_next_page").value(true));
+
+        mockMvc.perform(get("/api/catalog/local/anime").param("limit", "20").param("page", "2"))
+                .andExpect(jsonPath("$.data.length()").value(10))
+                .andExpect(jsonPath("$.pagination.has_next_page").value(false));
+    }
+
+    @Test
+    void genreFacetsCountTheFilteredItems() throws Exception {
+        mockMvc.perform(get("/api/catalog/local/anime/genres").param("status", "complete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].genreId").value(1))
+                .andExpect(jsonPath("$.data[0].count").value(15))
+                .andExpect(jsonPath("$.data[1].genreId").value(22))
+                .andExpect(jsonPath("$.data[1].count").value(3));
+    }
+
+    @Test
+    void emptyCatalogAsksTheClientToFallBack() throws Exception {
+        mockMvc.perform(get("/api/catalog/local/manga"))
+                .andExpect(status().isServiceUnavailable());
+
+        mockMvc.perform(get("/api/catalog/local/novels"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void partialIngestIsNotServedUntilAPassCompletes() throws Exception {
+        CatalogItem item = new CatalogItem("manga", 1L);
+        item.setTitle("Manga 1");
+        itemRepository.save(item);
+        CatalogIngestState state = new CatalogIngestState("manga");
+        state.setNextPage(2);
+        stateRepository.save(state);
+
+        mockMvc.perform(get("/api/catalog/local/manga"))
+                .andExpect(status().isServiceUnavailable());
+
+        state.setNextPage(1);
+        state.setCompletedPasses(1);
+        stateRepository.save(state);
+
+        mockMvc.perform(get("/api/catalog/local/manga"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+}
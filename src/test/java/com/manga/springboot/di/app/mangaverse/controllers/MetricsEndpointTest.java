@@ -0,0 +1,81 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.UserRegistrationDTO;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import com.manga.springboot.di.app.mangaverse.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void prometheusExposesRequestServiceRepositoryAndPoolMetrics() throws Exception {
+        UserRegistrationDTO dto = new UserRegistrationDTO();
+        dto.setUsername("metricas");
+        dto.setEmail("metricas@test.com");
+        dto.setPassword("Secreto!1");
+        dto.setConfirmPassword("Secreto!1");
+        userService.registerUser(dto);
+        mockMvc.perform(get("/api/users/availability").param("username", "metricas"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").with(user("scraper").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_count{")))
+                .andExpect(content().string(containsString("uri=\"/api/users/availability\"")))
+                .andExpect(content().string(containsString("mangaverse_service_seconds_count{")))
+                .andExpect(content().string(containsString("method=\"registerUser\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("mangaverse_password_hashing_seconds_count")))
+                .andExpect(content().string(containsString("mangaverse_password_hashing_seconds_max")))
+                .andExpect(content().string(containsString("cache=\"favorites\"")))
+                .andExpect(content().string(containsString("application=\"mangaverse\"")));
+    }
+
+    @Test
+    void onlyHealthIsPublicAndMetricsNeedAnAdmin() throws Exception {
+        UserRegistrationDTO dto = new UserRegistrationDTO();
+        dto.setUsername("lector");
+        dto.setEmail("lector@test.com");
+        dto.setPassword("Secreto!1");
+        dto.setConfirmPassword("Secreto!1");
+        userService.registerUser(dto);
+
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("lector@test.com", "Secreto!1")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("scraper").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,83 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.models.CatalogIngestState;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogIngestStateRepository;
+import com.manga.springboot.di.app.mangaverse.services.TitleSearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SearchApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @Autowired
+    private CatalogIngestStateRepository stateRepository;
+
+    @AfterEach
+    void cleanUp() {
+        stateRepository.deleteAll();
+    }
+
+    @Test
+    void searchesTheIndexAndAsksForFallbackWhenEmpty() throws Exception {
+        completedPasses("anime", 1);
+        titleSearchService.indexItems(List.of(
+                item(1, "Cowboy Bebop", 1_900_000L),
+                item(2, "Cowboy Bebop: Tengoku no Tobira", 400_000L)));
+
+        mockMvc.perform(get("/api/search").param("q", "cowboy bebo").param("kind", "anime"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].mal_id").value(1))
+                .andExpect(jsonPath("$.data[0].images.jpg.image_url").value("https://img.test/1.jpg"));
+
+        mockMvc.perform(get("/api/search").param("q", "berserk").param("kind", "manga"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void partialIndexAsksForFallbackUntilAPassCompletes() throws Exception {
+        completedPasses("anime", 0);
+        titleSearchService.indexItems(List.of(item(3, "Trigun", 800_000L)));
+
+        mockMvc.perform(get("/api/search").param("q", "trigun").param("kind", "anime"))
+                .andExpect(status().isServiceUnavailable());
+
+        completedPasses("anime", 1);
+        mockMvc.perform(get("/api/search").param("q", "trigun").param("kind", "anime"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].mal_id").value(3));
+    }
+
+    private void completedPasses(String kind, int passes) {
+        CatalogIngestState state = stateRepository.findById(kind).orElseGet(() -> new CatalogIngestState(kind));
+        state.setCompletedPasses(passes);
+        stateRepository.save(state);
+    }
+
+    private static CatalogItem item(long malId, String title, Long members) {
+        CatalogItem item = new CatalogItem("anime", malId);
+        item.setTitle(title);
+        item.setMembers(members);
+        item.setScore(8.0);
+        item.setImageUrl("https://img.test/" + malId + ".jpg");
+        return item;
+    }
+}
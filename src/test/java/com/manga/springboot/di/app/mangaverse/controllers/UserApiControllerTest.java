@@ -0,0 +1,85 @@
+package com.manga.springboot.di.app.mangaverse.controllers;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.UserRegistrationDTO;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import com.manga.springboot.di.app.mangaverse.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void register() {
+        UserRegistrationDTO dto = new UserRegistrationDTO();
+        dto.setUsername("otaku");
+        dto.setEmail("otaku@test.com");
+        dto.setPassword("Secreto!1");
+        dto.setConfirmPassword("Secreto!1");
+        userService.registerUser(dto);
+        clearInvocations(userRepository);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void freeNamesAreAnsweredFromMemory() throws Exception {
+        mockMvc.perform(get("/api/users/availability").param("username", "nuevo_lector").param("email", "nuevo@test.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(true))
+                .andExpect(jsonPath("$.email").value(true));
+
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void registeredNamesAreConfirmedWithTheIndex() throws Exception {
+        mockMvc.perform(get("/api/users/availability").param("username", "otaku").param("email", " otaku@test.com "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(false))
+                .andExpect(jsonPath("$.email").value(false));
+
+        verify(userRepository).existsByUsername("otaku");
+    }
+
+    @Test
+    void duplicateRegistrationIsStillRejected() throws Exception {
+        UserRegistrationDTO dto = new UserRegistrationDTO();
+        dto.setUsername("otaku");
+        dto.setEmail("otro@test.com");
+        dto.setPassword("Secreto!1");
+        dto.setConfirmPassword("Secreto!1");
+        assertThrows(RuntimeException.class, () -> userService.registerUser(dto));
+
+        mockMvc.perform(get("/api/users/availability")).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,135 @@
+package com.manga.springboot.di.app.mangaverse.repositories;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteFilterDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteDTO;
+import com.manga.springboot.di.app.mangaverse.models.Favorite;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.services.FavoriteService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Comprueba con EXPLAIN que cada patrón de filtro se resuelve con su índice compuesto
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.manga.springboot.di.app.mangaverse.repositories.FavoriteSearchPlanTest$LastStatement")
+class FavoriteSearchPlanTest {
+
+    public static class LastStatement implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            sql = statement;
+            return statement;
+        }
+    }
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+
+    @BeforeEach
+    void seed() throws Exception {
+        user = userRepository.save(new User("planner", "planner@test.com", "Secreto!1"));
+        User other = userRepository.save(new User("other", "other@test.com", "Secreto!1"));
+        for (int i = 0; i < 300; i++) {
+            User owner = i % 3 == 0 ? user : other;
+            favoriteRepository.insertIfAbsent(favoriteRepository.nextId(), owner.getId(), String.valueOf(i), i % 2 == 0 ? "anime" : "manga",
+                    "Titulo " + i, null, 5 + (i % 50) / 10.0, 1980 + i % 45, Favorite.now());
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        favoriteRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void typeAndScoreRangeUsesTheScoreIndex() throws Exception {
+        FavoriteFilterDTO filter = new FavoriteFilterDTO();
+        filter.setContentType("anime");
+        filter.setMinScore(7.0);
+        filter.setMaxScore(9.0);
+        filter.setSort("score");
+
+        List<FavoriteDTO> result = favoriteService.searchFavorites(user, filter);
+
+        assertFalse(result.isEmpty());
+        assertTrue(result.stream().allMatch(f -> f.getScore() >= 7.0 && f.getScore() <= 9.0));
+        assertTrue(result.stream().allMatch(f -> "anime".equals(f.getContentType())));
+        assertPlanUses("idx_favorites_user_type_score");
+    }
+
+    @Test
+    void typeAndYearRangeUsesTheYearIndex() throws Exception {
+        FavoriteFilterDTO filter = new FavoriteFilterDTO();
+        filter.setContentType("manga");
+        filter.setMinYear(1990);
+        filter.setMaxYear(2000);
+        filter.setSort("year");
+        filter.setDirection("asc");
+
+        List<FavoriteDTO> result = favoriteService.searchFavorites(user, filter);
+
+        assertFalse(result.isEmpty());
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getYear() <= result.get(i).getYear());
+        }
+        assertPlanUses("idx_favorites_user_type_year");
+    }
+
+    @Test
+    void unfilteredListingSeeksOnTheUser() throws Exception {
+        favoriteService.searchFavorites(user, new FavoriteFilterDTO());
+
+        // Cualquier índice que empiece por user_id vale (H2 elige el de la clave foránea)
+        assertPlanUses("user_id = ?1");
+    }
+
+    private void assertPlanUses(String index) throws Exception {
+        String sql = LastStatement.sql;
+        assertNotNull(sql);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            // El plan depende de las condiciones, no de los valores concretos
+            int parameters = explain.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                explain.setNull(i, Types.NULL);
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                assertTrue(rs.next());
+                String plan = rs.getString(1).toLowerCase();
+                assertFalse(plan.contains("tablescan"), plan);
+                assertTrue(plan.contains(index), plan);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.models.CatalogGenre;
+import com.manga.springboot.di.app.mangaverse.models.CatalogIngestState;
+import com.manga.springboot.di.app.mangaverse.models.CatalogItem;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogIngestStateRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.CatalogItemRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// La ingesta se prueba contra un servidor local que imita las páginas de /v4/anime de Jikan
+@SpringBootTest(properties = "catalog.ingest.min-interval=100ms")
+class CatalogIngestionServiceTest {
+
+    private static final HttpServer server = startStub();
+    private static final List<String> requests = new CopyOnWriteArrayList<>();
+    private static final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+    private static volatile double firstScore = 8.5;
+
+    @DynamicPropertySource
+    static void jikanStub(DynamicPropertyRegistry registry) {
+        registry.add("jikan.api.base-url", () -> "http://localhost:" + server.getAddress().getPort() + "/v4");
+    }
+
+    @Autowired
+    private CatalogIngestionService ingestionService;
+
+    @Autowired
+    private CatalogItemRepository itemRepository;
+
+    @Autowired
+    private CatalogIngestStateRepository stateRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        stateRepository.deleteAll();
+        requests.clear();
+        requestTimes.clear();
+        firstScore = 8.5;
+    }
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void ingestionResumesFromTheLastPageAndWrapsAround() {
+        assertEquals(3, ingestionService.ingest("anime", 1));
+        assertEquals(2, stateRepository.findById("anime").orElseThrow().getNextPage());
+
+        assertEquals(2, ingestionService.ingest("anime", 5));
+        CatalogIngestState state = stateRepository.findById("anime").orElseThrow();
+        assertEquals(1, state.getNextPage());
+        assertEquals(1, state.getCompletedPasses());
+
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(0).contains("order_by=mal_id") && requests.get(0).contains("page=1"));
+        assertTrue(requests.get(1).contains("page=2"));
+        assertEquals(5, itemRepository.count());
+    }
+
+    @Test
+    void itemsAreNormalizedForTheLocalFilters() {
+        ingestionService.ingest("anime", 2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            CatalogItem first = itemRepository.findByKindAndMalIdIn("anime", List.of(1L)).get(0);
+            assertEquals("Titulo 1", first.getTitle());
+            assertEquals("English 1", first.getTitleEnglish());
+            assertEquals("Sinonimo 1", first.getAlternativeTitles());
+            assertEquals("tv", first.getType());
+            assertEquals("airing", first.getStatus());
+            assertEquals(2021, first.getYear());
+            assertEquals("https://img.test/1.jpg", first.getImageUrl());
+            assertEquals(Set.of(1, 27), first.getGenres().stream().map(CatalogGenre::getGenreId).collect(Collectors.toSet()));
+
+            CatalogItem movie = itemRepository.findByKindAndMalIdIn("anime", List.of(2L)).get(0);
+            assertEquals("movie", movie.getType());
+            assertEquals("complete", movie.getStatus());
+            assertEquals(2010, movie.getYear());
+        });
+    }
+
+    @Test
+    void secondPassUpdatesExistingItemsInsteadOfDuplicating() {
+        ingestionService.ingest("anime", 2);
+        firstScore = 9.1;
+        ingestionService.ingest("anime", 2);
+
+        assertEquals(5, itemRepository.count());
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(9.1, itemRepository.findByKindAndMalIdIn("anime", List.of(1L)).get(0).getScore()));
+    }
+
+    @Test
+    void pagesAreRequestedNoFasterThanTheConfiguredInterval() {
+        ingestionService.ingest("anime", 2);
+        ingestionService.ingest("anime", 2);
+
+        assertEquals(4, requestTimes.size());
+        for (int i = 1; i < requestTimes.size(); i++) {
+            assertTrue(requestTimes.get(i) - requestTimes.get(i - 1) >= 90,
+                    "intervalo de " + (requestTimes.get(i) - requestTimes.get(i - 1)) + " ms");
+        }
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/v4/anime", exchange -> {
+                String query = exchange.getRequestURI().getQuery();
+                requests.add(query);
+                requestTimes.add(System.currentTimeMillis());
+
+                boolean firstPage = query.contains("page=1");
+                String body = firstPage
+                        ? page(true, item(1, "TV", "Currently Airing", firstScore, "2021", "[[1,\"Action\"]]", "[[27,\"Shounen\"]]"),
+                                item(2, "Movie", "Finished Airing", 7.2, "null", "[[8,\"Drama\"]]", "[]"),
+                                item(3, "OVA", "Not yet aired", null, "null", "[[1,\"Action\"]]", "[]"))
+                        : page(false, item(4, "TV", "Finished Airing", 6.0, "1999", "[[4,\"Comedy\"]]", "[]"),
+                                item(5, "Special", "Finished Airing", 7.7, "2005", "[]", "[]"));
+
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String page(boolean hasNext, String... items) {
+        return "{\"pagination\":{\"has_next_page\":" + hasNext + "},\"data\":[" + String.join(",", items) + "]}";
+    }
+
+    // Los géneros se pasan como [[id,"nombre"],...] y se convierten al formato de Jikan
+    private static String item(int id, String type, String status, Double score, String year, String genres, String demographics) {
+        return "{\"mal_id\":" + id + ",\"title\":\"Titulo " + id + "\",\"type\":\"" + type + "\",\"status\":\"" + status + "\","
+                + "\"title_english\":\"English " + id + "\",\"titles\":[{\"type\":\"Default\",\"title\":\"Titulo " + id + "\"},"
+                + "{\"type\":\"Synonym\",\"title\":\"Sinonimo " + id + "\"},{\"type\":\"English\",\"title\":\"English " + id + "\"}],"
+                + "\"score\":" + score + ",\"members\":" + (1000 * id) + ",\"year\":" + year + ","
+                + "\"aired\":{\"prop\":{\"from\":{\"year\":" + (2010 + id - 2) + "}}},"
+                + "\"images\":{\"jpg\":{\"image_url\":\"https://img.test/" + id + ".jpg\"}},"
+                + "\"genres\":" + genres(genres) + ",\"demographics\":" + genres(demographics) + "}";
+    }
+
+    private static String genres(String pairs) {
+        return pairs.replaceAll("\\[(\\d+),(\"[^\"]+\")]", "{\"mal_id\":$1,\"name\":$2}");
+    }
+}
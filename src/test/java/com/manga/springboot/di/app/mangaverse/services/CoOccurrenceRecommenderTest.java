@@ -0,0 +1,104 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.RecommendationDTO;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteTombstoneRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CoOccurrenceRecommenderTest {
+
+    @Autowired
+    private CoOccurrenceRecommender recommender;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FavoriteTombstoneRepository favoriteTombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void createUsers() {
+        for (int i = 0; i < 4; i++) {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            users.add(userRepository.save(new User("user" + suffix, suffix + "@test.com", "Secreto!1")));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        favoriteRepository.deleteAll();
+        favoriteTombstoneRepository.deleteAll();
+        userRepository.deleteAll();
+        recommender.rebuild();
+    }
+
+    @Test
+    void titlesFavoritedTogetherAreRecommendedTogether() {
+        // 1 y 2 juntos en tres listas; 1 y 3 solo en una (por debajo del soporte mínimo)
+        add(0, "1", "2", "3");
+        add(1, "1", "2");
+        add(2, "1", "2", "4");
+        add(3, "4", "5");
+        recommender.rebuild();
+
+        List<RecommendationDTO> similar = recommender.alsoFavorited("anime", "1", 10);
+        assertEquals(List.of("2"), similar.stream().map(RecommendationDTO::getContentId).toList());
+        assertEquals(3, similar.get(0).getSupport());
+        assertEquals("Título 2", similar.get(0).getTitle());
+
+        // Con 2 también en la última lista, 2 y 4 coinciden en dos: a quien tiene 1 y 2 se le recomienda 4
+        add(3, "2");
+        assertEquals(List.of("4"), recommender.feed(users.get(1).getId(), 10).stream()
+                .map(RecommendationDTO::getContentId).toList());
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullRebuild() {
+        add(0, "1", "2");
+        add(1, "1", "2", "3");
+        recommender.rebuild();
+
+        add(2, "1", "3");
+        add(3, "1", "3", "2");
+        favoriteService.removeFavorite(users.get(1), "2", "anime");
+        favoriteService.toggleFavorite(users.get(0), "3", "anime", "Título 3", null, 8.0, 2020);
+
+        List<RecommendationDTO> incremental = recommender.alsoFavorited("anime", "1", 10);
+        recommender.rebuild();
+        List<RecommendationDTO> rebuilt = recommender.alsoFavorited("anime", "1", 10);
+
+        assertEquals(describe(rebuilt), describe(incremental));
+        assertEquals(List.of("3:4", "2:2"), describe(rebuilt));
+    }
+
+    private void add(int user, String... contentIds) {
+        for (String contentId : contentIds) {
+            favoriteService.addFavorite(users.get(user), contentId, "anime", "Título " + contentId, null, 8.0, 2020);
+        }
+    }
+
+    private static List<String> describe(List<RecommendationDTO> recommendations) {
+        return recommendations.stream().map(r -> r.getContentId() + ":" + r.getSupport()).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.MangaverseApplication;
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteImportDTO;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Alta fila a fila (addFavorite) frente a alta en lotes (addFavorites) de la misma lista, sobre H2.
+// Cada invocación usa un usuario nuevo, así las dos variantes insertan siempre todas las filas
+// mvn -Pbenchmark test-compile exec:exec -Djmh.include=FavoriteBulkInsertBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FavoriteBulkInsertBenchmark {
+
+    @Param({"100", "1000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private FavoriteService favoriteService;
+    private FavoriteRepository favoriteRepository;
+    private UserRepository userRepository;
+    private List<FavoriteImportDTO> favorites;
+    private User user;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(MangaverseApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "logging.level.root=WARN", "logging.level.com.manga.springboot.di.app.mangaverse=WARN")
+                .run();
+        favoriteService = context.getBean(FavoriteService.class);
+        favoriteRepository = context.getBean(FavoriteRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        favorites = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            favorites.add(new FavoriteImportDTO(String.valueOf(i), i % 2 == 0 ? "anime" : "manga",
+                    "Título " + i, "https://cdn.myanimelist.net/images/anime/" + i + ".jpg", 7.5, 2010));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newUser() {
+        int id = next++;
+        user = userRepository.save(new User("bench" + id, "bench" + id + "@test.com", "Secreto!1"));
+    }
+
+    // Vaciar entre iteraciones para que el tamaño de la tabla no sesgue la medida
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        favoriteRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public int perRow() {
+        int inserted = 0;
+        for (FavoriteImportDTO item : favorites) {
+            if (favoriteService.addFavorite(user, item.getContentId(), item.getContentType(),
+                    item.getTitle(), item.getImageUrl(), item.getScore(), item.getYear())) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    @Benchmark
+    public int batched() {
+        return favoriteService.addFavorites(user, favorites);
+    }
+}
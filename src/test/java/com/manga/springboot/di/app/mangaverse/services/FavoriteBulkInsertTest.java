@@ -0,0 +1,99 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteImportDTO;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Alta fila a fila frente a alta masiva en lotes: se compara el número de sentencias preparadas
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FavoriteBulkInsertTest {
+
+    private static final int ITEMS = 1000;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        favoriteRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bulkAddUsesAHandfulOfBatchedStatements() {
+        User oneByOne = userRepository.save(new User("fila", "fila@test.com", "Secreto!1"));
+        User bulk = userRepository.save(new User("lote", "lote@test.com", "Secreto!1"));
+        List<FavoriteImportDTO> items = items(ITEMS);
+
+        statistics.clear();
+        for (FavoriteImportDTO item : items) {
+            favoriteService.addFavorite(oneByOne, item.getContentId(), item.getContentType(),
+                    item.getTitle(), item.getImageUrl(), item.getScore(), item.getYear());
+        }
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        int inserted = favoriteService.addFavorites(bulk, items);
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(ITEMS, inserted);
+        assertEquals(ITEMS, favoriteService.countUserFavorites(bulk));
+        assertTrue(favoriteService.isFavorite(bulk, "999", "manga"));
+        assertTrue(singleStatements >= ITEMS * 2, "fila a fila: " + singleStatements);
+        assertTrue(bulkStatements <= ITEMS / 10, "en lote: " + bulkStatements);
+    }
+
+    @Test
+    void bulkAddSkipsExistingAndRepeatedItems() {
+        User user = userRepository.save(new User("import", "import@test.com", "Secreto!1"));
+        favoriteService.addFavorite(user, "0", "anime", "Cero", null, 8.0, 2020);
+
+        List<FavoriteImportDTO> items = new ArrayList<>(items(4));
+        items.add(new FavoriteImportDTO("1", "manga", "Repetido", null, 7.0, 2001));
+
+        // "0" (anime) ya existía y "1" (manga) viene dos veces
+        assertEquals(3, favoriteService.addFavorites(user, items));
+        assertEquals(4, favoriteService.countUserFavorites(user));
+        assertEquals(2, favoriteService.countUserFavoritesByType(user, "manga"));
+        assertEquals(0, favoriteService.addFavorites(user, items));
+    }
+
+    private static List<FavoriteImportDTO> items(int count) {
+        List<FavoriteImportDTO> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new FavoriteImportDTO(String.valueOf(i), i % 2 == 0 ? "anime" : "manga",
+                    "Titulo " + i, null, 5 + (i % 50) / 10.0, 1980 + i % 45));
+        }
+        return items;
+    }
+}
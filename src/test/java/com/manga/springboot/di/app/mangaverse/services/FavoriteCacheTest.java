@@ -0,0 +1,66 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FavoriteCacheTest {
+
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private final FavoriteCache cache = new FavoriteCache(favoriteRepository, new FavoriteShards(List.of()),
+            100, Duration.ofMillis(300));
+
+    // Un alta hecha en otro nodo solo llega por la base de datos: las lecturas seguidas no deben retrasarla
+    @Test
+    void changesFromOtherNodesShowUpAfterTheTtlEvenForActiveUsers() throws Exception {
+        when(favoriteRepository.findContentKeysByUserId(1L)).thenReturn(List.of("anime:1"));
+        assertFalse(cache.contains(1L, "anime", "2"));
+
+        when(favoriteRepository.findContentKeysByUserId(1L)).thenReturn(List.of("anime:1", "anime:2"));
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        boolean seen = false;
+        while (!seen && System.nanoTime() < deadline) {
+            cache.added(1L, "manga", "9");
+            seen = cache.contains(1L, "anime", "2");
+            Thread.sleep(20);
+        }
+        assertTrue(seen);
+    }
+
+    @Test
+    void usersDoNotWaitForEachOthersLocks() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> cache.withUserLock(1L, () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(locked.await(1, TimeUnit.SECONDS));
+
+        // Cualquier otro usuario entra aunque el primero siga dentro
+        for (long userId = 2; userId < 200; userId++) {
+            assertEquals(userId, CompletableFuture.supplyAsync(withLock(userId)).get(1, TimeUnit.SECONDS));
+        }
+        release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+    }
+
+    private Supplier<Long> withLock(long userId) {
+        return () -> cache.withUserLock(userId, () -> userId);
+    }
+}
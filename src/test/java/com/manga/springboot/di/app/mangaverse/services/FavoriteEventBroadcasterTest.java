@@ -0,0 +1,69 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FavoriteEventBroadcasterTest {
+
+    private static final long USER = 1L;
+
+    // Cada envío tarda un poco al azar, como un cliente con la red irregular
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final FavoriteEventBroadcaster broadcaster = new FavoriteEventBroadcaster() {
+        @Override
+        SseEmitter newEmitter() {
+            return new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    sleepUpTo(2);
+                    builder.build().stream()
+                            .map(part -> part.getData())
+                            .filter(Map.class::isInstance)
+                            .map(data -> (String) ((Map<?, ?>) data).get("action"))
+                            .forEach(received::add);
+                }
+            };
+        }
+    };
+
+    @AfterEach
+    void close() {
+        broadcaster.close();
+    }
+
+    @Test
+    void consecutiveChangesArriveInCommitOrder() throws Exception {
+        broadcaster.subscribe(USER);
+
+        for (int i = 0; i < 50; i++) {
+            broadcaster.onFavoriteChanged(FavoriteChangedEvent.added(USER, "9", "anime", "Nueve", null, null, null));
+            broadcaster.onFavoriteChanged(FavoriteChangedEvent.removed(USER, "9", "anime"));
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (received.size() < 100 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(100, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i % 2 == 0 ? FavoriteChangedEvent.ADDED : FavoriteChangedEvent.REMOVED, received.get(i), "evento " + i);
+        }
+    }
+
+    private static void sleepUpTo(int millis) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.MangaverseApplication;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Alternar y consultar favoritos con el contexto completo sobre H2 (la configuración de src/test/resources).
+// toggleTwice deja el estado como estaba: mide un INSERT IGNORE más un DELETE, con sus contadores
+// mvn -Pbenchmark test-compile exec:exec -Djmh.include=FavoriteServiceBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FavoriteServiceBenchmark {
+
+    private static final int FAVORITES = 500;
+
+    private ConfigurableApplicationContext context;
+    private FavoriteService favoriteService;
+    private User user;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(MangaverseApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "logging.level.root=WARN", "logging.level.com.manga.springboot.di.app.mangaverse=WARN")
+                .run();
+        favoriteService = context.getBean(FavoriteService.class);
+        user = context.getBean(UserRepository.class).save(new User("bench", "bench@test.com", "Secreto!1"));
+
+        // Un usuario con una colección realista, para que las consultas no trabajen sobre tablas vacías
+        for (int i = 0; i < FAVORITES; i++) {
+            favoriteService.toggleFavorite(user, String.valueOf(i), i % 2 == 0 ? "anime" : "manga",
+                    "Título " + i, "https://cdn.myanimelist.net/images/anime/" + i + ".jpg", 7.5, 2010);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean toggleTwice() {
+        String contentId = String.valueOf(100_000 + (next++ % 1_000));
+        favoriteService.toggleFavorite(user, contentId, "anime", "Nuevo", null, 8.0, 2024);
+        return favoriteService.toggleFavorite(user, contentId, "anime", "Nuevo", null, 8.0, 2024);
+    }
+
+    @Benchmark
+    public boolean isFavoriteHit() {
+        return favoriteService.isFavorite(user, String.valueOf(next++ % FAVORITES), (next & 1) == 0 ? "manga" : "anime");
+    }
+
+    @Benchmark
+    public boolean isFavoriteMiss() {
+        return favoriteService.isFavorite(user, "missing-" + (next++ % 1_000), "anime");
+    }
+}
@@ -0,0 +1,341 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.FavoriteSyncOperationDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteChangeDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoritePageDTO;
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoriteSyncResultDTO;
+import com.manga.springboot.di.app.mangaverse.models.Favorite;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.FavoriteTombstoneRepository;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class FavoriteServiceTest {
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FavoriteTombstoneRepository favoriteTombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User("user" + suffix, suffix + "@test.com", "Secreto!1"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        favoriteRepository.deleteAll();
+        favoriteTombstoneRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void membershipChecksAreServedFromMemoryAfterFirstLoad() {
+        favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+
+        double missesBefore = cacheGets("miss");
+        double hitsBefore = cacheGets("hit");
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(favoriteService.isFavorite(user, "1", "anime"));
+            assertFalse(favoriteService.isFavorite(user, "2", "anime"));
+        }
+
+        assertEquals(1, cacheGets("miss") - missesBefore);
+        assertEquals(19, cacheGets("hit") - hitsBefore);
+    }
+
+    // Las mismas cifras que exporta /actuator/prometheus como cache_gets_total{cache="favorites"}
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "favorites").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void addAndRemoveWriteThroughTheCache() {
+        assertFalse(favoriteService.isFavorite(user, "5", "manga"));
+
+        favoriteService.addFavorite(user, "5", "manga", "Cinco", null, 7.5, 2019);
+        assertTrue(favoriteService.isFavorite(user, "5", "manga"));
+
+        favoriteService.removeFavorite(user, "5", "manga");
+        assertFalse(favoriteService.isFavorite(user, "5", "manga"));
+        assertEquals(0, favoriteService.countUserFavorites(user));
+    }
+
+    @Test
+    void checkFavoritesAnswersAWholeGridAtOnce() {
+        favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        favoriteService.addFavorite(user, "3", "manga", "Tres", null, 9.0, 2018);
+
+        Map<String, Boolean> statuses = favoriteService.checkFavorites(user,
+                List.of("anime:1", "anime:2", "manga:1", "manga:3"));
+
+        assertEquals(Map.of("anime:1", true, "anime:2", false, "manga:1", false, "manga:3", true), statuses);
+    }
+
+    @Test
+    void toggleReturnsTheResultingState() {
+        assertTrue(favoriteService.toggleFavorite(user, "7", "anime", "Siete", null, 8.1, 2021));
+        assertTrue(favoriteService.isFavorite(user, "7", "anime"));
+
+        assertFalse(favoriteService.toggleFavorite(user, "7", "anime", "Siete", null, 8.1, 2021));
+        assertFalse(favoriteService.isFavorite(user, "7", "anime"));
+    }
+
+    @Test
+    void concurrentTogglesOnOneKeyStayConsistent() throws Exception {
+        int threads = 16;
+        int togglesPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < togglesPerThread; i++) {
+                    favoriteService.toggleFavorite(user, "42", "anime", "Hammer", null, 9.0, 2022);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Número par de clics: el contenido termina fuera de favoritos, en la base de datos y en memoria
+        assertEquals(0, favoriteRepository.count());
+        assertFalse(favoriteService.isFavorite(user, "42", "anime"));
+    }
+
+    @Test
+    void concurrentInsertsNeverViolateTheUniqueConstraint() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return favoriteRepository.insertIfAbsent(favoriteRepository.nextId(), user.getId(), "99", "manga", "Race", null, 7.0, 2015, Favorite.now());
+            }));
+        }
+        start.countDown();
+        int inserted = 0;
+        for (Future<Integer> future : futures) {
+            inserted += future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, inserted);
+        assertEquals(1, favoriteRepository.count());
+    }
+
+    @Test
+    void favoritesPagesWalkTheWholeListWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 25; i++) {
+            favoriteService.addFavorite(user, String.valueOf(i), "anime", "Titulo " + i, null, 7.0, 2000 + i);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            FavoritePageDTO page = favoriteService.getFavoritesPage(user, cursor, 10);
+            page.getItems().forEach(item -> seen.add(item.getContentId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        assertEquals(25, new HashSet<>(seen).size());
+        assertEquals("24", seen.get(0));
+    }
+
+    @Test
+    void countersFollowEveryAddAndRemove() {
+        favoriteService.toggleFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        favoriteService.toggleFavorite(user, "2", "anime", "Dos", null, 8.0, 2020);
+        favoriteService.addFavorite(user, "3", "manga", "Tres", null, 8.0, 2020);
+        favoriteService.addFavorite(user, "3", "manga", "Tres", null, 8.0, 2020);
+        favoriteService.toggleFavorite(user, "2", "anime", "Dos", null, 8.0, 2020);
+        favoriteService.removeFavorite(user, "9", "anime");
+
+        assertEquals(2, favoriteService.countUserFavorites(user));
+        assertEquals(1, favoriteService.countUserFavoritesByType(user, "anime"));
+        assertEquals(1, favoriteService.countUserFavoritesByType(user, "manga"));
+    }
+
+    @Test
+    void rebuildRepairsDriftedCounters() {
+        favoriteService.toggleFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        favoriteRepository.insertIfAbsent(favoriteRepository.nextId(), user.getId(), "2", "anime", "Dos", null, 8.0, 2020, Favorite.now());
+        assertEquals(1, favoriteService.countUserFavorites(user));
+
+        favoriteCounterService.rebuild(user.getId());
+        assertEquals(2, favoriteService.countUserFavorites(user));
+
+        favoriteRepository.insertIfAbsent(favoriteRepository.nextId(), user.getId(), "3", "manga", "Tres", null, 8.0, 2020, Favorite.now());
+        favoriteCounterService.rebuildAll();
+        assertEquals(3, favoriteService.countUserFavorites(user));
+        assertEquals(1, favoriteService.countUserFavoritesByType(user, "manga"));
+    }
+
+    // El recálculo completo va por tramos de usuarios: ninguno se queda sin contar entre un tramo y el siguiente
+    @Test
+    void rebuildAllWalksEveryUserRange() {
+        List<User> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            others.add(userRepository.save(new User("user" + suffix, suffix + "@test.com", "Secreto!1")));
+        }
+        for (int i = 0; i < others.size(); i++) {
+            for (int j = 0; j <= i; j++) {
+                favoriteRepository.insertIfAbsent(favoriteRepository.nextId(), others.get(i).getId(),
+                        String.valueOf(j), "anime", "T" + j, null, 8.0, 2020, Favorite.now());
+            }
+        }
+
+        Object batch = ReflectionTestUtils.getField(favoriteCounterService, "rebuildBatch");
+        ReflectionTestUtils.setField(favoriteCounterService, "rebuildBatch", 2);
+        try {
+            favoriteCounterService.rebuildAll();
+        } finally {
+            ReflectionTestUtils.setField(favoriteCounterService, "rebuildBatch", batch);
+        }
+
+        for (int i = 0; i < others.size(); i++) {
+            assertEquals(i + 1, favoriteService.countUserFavorites(others.get(i)));
+        }
+    }
+
+    @Test
+    void syncWithoutTokenReturnsTheWholeListOnce() {
+        favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        favoriteService.addFavorite(user, "2", "manga", "Dos", null, 7.0, 2019);
+
+        FavoriteSyncResultDTO first = favoriteService.sync(user, null, List.of());
+        assertTrue(first.isReset());
+        assertEquals(2, first.getChanges().size());
+
+        FavoriteSyncResultDTO second = favoriteService.sync(user, first.getToken(), List.of());
+        assertFalse(second.isReset());
+        // Solo lo que cae en el margen de solapamiento, nunca una lista nueva
+        assertTrue(second.getChanges().stream().allMatch(FavoriteChangeDTO::isAdded));
+    }
+
+    @Test
+    void offlineOperationsResolveWithLastWriterWins() {
+        Instant beforeServerWrites = Instant.now().minusSeconds(60);
+        favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        favoriteService.addFavorite(user, "2", "anime", "Dos", null, 8.0, 2020);
+        favoriteService.removeFavorite(user, "2", "anime");
+        String token = favoriteService.sync(user, null, List.of()).getToken();
+
+        Instant offline = Instant.now().plusSeconds(1);
+        FavoriteSyncResultDTO result = favoriteService.sync(user, token, List.of(
+                // Más antiguas que lo que ya tiene el servidor: se descartan
+                new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.REMOVE, "1", "anime", beforeServerWrites),
+                new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.ADD, "2", "anime", beforeServerWrites),
+                // Nuevas: se aplican, y dentro del lote cuenta la última de cada clave
+                new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.ADD, "3", "manga", offline),
+                new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.ADD, "4", "manga", offline),
+                new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.REMOVE, "4", "manga", offline.plusSeconds(1))));
+
+        assertEquals(1, result.getApplied());
+        assertTrue(favoriteService.isFavorite(user, "1", "anime"));
+        assertFalse(favoriteService.isFavorite(user, "2", "anime"));
+        assertTrue(favoriteService.isFavorite(user, "3", "manga"));
+        assertFalse(favoriteService.isFavorite(user, "4", "manga"));
+        assertEquals(2, favoriteService.countUserFavorites(user));
+        assertTrue(result.getChanges().stream()
+                .anyMatch(change -> change.isAdded() && change.getContentId().equals("3")));
+    }
+
+    // Altas, lápidas y operaciones del cliente se comparan en UTC: la zona de la JVM no cambia el ganador
+    @Test
+    void lastWriterWinsIgnoresTheServerTimeZone() throws Exception {
+        TimeZone original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"));
+        try {
+            Instant beforeRemove = Instant.now();
+            Thread.sleep(5);
+            favoriteService.addFavorite(user, "5", "anime", "Cinco", null, 8.0, 2020);
+            favoriteService.removeFavorite(user, "5", "anime");
+            Thread.sleep(5);
+            Instant afterRemove = Instant.now();
+
+            assertEquals(0, favoriteService.sync(user, null, List.of(
+                    new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.ADD, "5", "anime", beforeRemove))).getApplied());
+            assertFalse(favoriteService.isFavorite(user, "5", "anime"));
+            assertEquals(1, favoriteService.sync(user, null, List.of(
+                    new FavoriteSyncOperationDTO(FavoriteSyncOperationDTO.ADD, "5", "anime", afterRemove))).getApplied());
+            assertTrue(favoriteService.isFavorite(user, "5", "anime"));
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    void deletesReachOtherDevicesAsTombstones() {
+        favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        String token = favoriteService.sync(user, null, List.of()).getToken();
+
+        favoriteService.toggleFavorite(user, "1", "anime", null, null, null, null);
+
+        FavoriteSyncResultDTO result = favoriteService.sync(user, token, List.of());
+        assertFalse(result.isReset());
+        assertEquals(1, result.getChanges().size());
+        assertEquals(FavoriteChangeDTO.REMOVED, result.getChanges().get(0).getAction());
+        assertEquals("1", result.getChanges().get(0).getContentId());
+
+        // Volver a añadirlo sustituye la baja en los cambios
+        favoriteService.toggleFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        result = favoriteService.sync(user, token, List.of());
+        assertEquals(1, result.getChanges().size());
+        assertTrue(result.getChanges().get(0).isAdded());
+    }
+}
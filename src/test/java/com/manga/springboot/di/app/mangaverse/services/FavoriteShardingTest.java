@@ -0,0 +1,142 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.FavoritePageDTO;
+import com.manga.springboot.di.app.mangaverse.models.User;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Tres H2 en memoria como shards; users sigue en la base principal de las pruebas
+@SpringBootTest(properties = {
+        "favorites.shards.urls[0]=jdbc:h2:mem:favorites_shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+        "favorites.shards.urls[1]=jdbc:h2:mem:favorites_shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+        "favorites.shards.urls[2]=jdbc:h2:mem:favorites_shard2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE"
+})
+@DirtiesContext
+class FavoriteShardingTest {
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    @Autowired
+    private FavoriteShards favoriteShards;
+
+    @Autowired
+    private FavoriteShardRebalancer rebalancer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void createUsers() {
+        for (int i = 0; i < 12; i++) {
+            users.add(userRepository.save(new User("shard" + i, "shard" + i + "@test.com", "Secreto!1")));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        favoriteShards.onAllShards(shard -> jdbc(shard).update("DELETE FROM favorites")
+                + jdbc(shard).update("DELETE FROM favorite_counters"));
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void eachUserLivesInASingleShard() {
+        for (User user : users) {
+            favoriteService.toggleFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+            favoriteService.addFavorite(user, "2", "manga", "Dos", null, 7.0, 2019);
+        }
+
+        Set<Integer> used = new HashSet<>();
+        for (User user : users) {
+            int shard = favoriteShards.shardOf(user.getId());
+            used.add(shard);
+            for (int other = 0; other < favoriteShards.shardCount(); other++) {
+                assertEquals(other == shard ? 2 : 0, count(other, user.getId()));
+            }
+            assertEquals(2L, favoriteService.countUserFavorites(user));
+            assertTrue(favoriteService.isFavorite(user, "2", "manga"));
+            FavoritePageDTO page = favoriteService.getFavoritesPage(user, null, 10);
+            assertEquals(2, page.getItems().size());
+        }
+        assertEquals(3, used.size());
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM favorites", Integer.class));
+    }
+
+    @Test
+    void crossUserWorkRunsOnEveryShard() {
+        for (User user : users) {
+            favoriteService.addFavorite(user, "1", "anime", "Uno", null, 8.0, 2020);
+        }
+        favoriteShards.onAllShards(shard -> jdbc(shard).update("UPDATE favorite_counters SET total = 99"));
+
+        favoriteCounterService.rebuildAll();
+
+        for (User user : users) {
+            assertEquals(1L, favoriteService.countUserFavorites(user));
+        }
+    }
+
+    @Test
+    void rebalancerMovesUsersToTheirShard() {
+        User user = users.get(0);
+        int home = favoriteShards.shardOf(user.getId());
+        int wrong = (home + 1) % favoriteShards.shardCount();
+        jdbc(wrong).update("INSERT INTO favorites (id, user_id, content_id, content_type, title, added_at) "
+                + "VALUES (1, ?, '7', 'anime', 'Siete', CURRENT_TIMESTAMP)", user.getId());
+        jdbc(wrong).update("INSERT INTO favorite_counters (user_id, content_type, total) VALUES (?, 'anime', 1)", user.getId());
+
+        assertEquals(1, rebalancer.rebalance());
+        assertEquals(0, rebalancer.rebalance());
+
+        assertEquals(0, count(wrong, user.getId()));
+        assertEquals(1, count(home, user.getId()));
+        assertEquals(1L, favoriteService.countUserFavorites(user));
+        assertEquals("Siete", favoriteService.getUserFavorites(user).get(0).getTitle());
+    }
+
+    @Test
+    void shardsHandOutIdsFromSeparateRanges() {
+        User first = users.stream().filter(u -> favoriteShards.shardOf(u.getId()) == 0).findFirst().orElseThrow();
+        User second = users.stream().filter(u -> favoriteShards.shardOf(u.getId()) == 1).findFirst().orElseThrow();
+
+        favoriteService.addFavorite(first, "1", "anime", "Uno", null, 8.0, 2020);
+        favoriteService.addFavorite(second, "1", "anime", "Uno", null, 8.0, 2020);
+        Long a = jdbc(0).queryForObject("SELECT id FROM favorites WHERE user_id = ?", Long.class, first.getId());
+        Long b = jdbc(1).queryForObject("SELECT id FROM favorites WHERE user_id = ?", Long.class, second.getId());
+
+        assertNotEquals(a, b);
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(favoriteShards.dataSource(shard));
+    }
+
+    private int count(int shard, Long userId) {
+        return jdbc(shard).queryForObject("SELECT COUNT(*) FROM favorites WHERE user_id = ?", Integer.class, userId);
+    }
+}
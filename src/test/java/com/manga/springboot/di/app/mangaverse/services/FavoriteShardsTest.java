@@ -0,0 +1,24 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FavoriteShardsTest {
+
+    @Test
+    void growingTheClusterOnlyMovesUsersToTheNewShard() {
+        int moved = 0;
+        for (long userId = 1; userId <= 10_000; userId++) {
+            int before = FavoriteShards.shardOf(userId, 4);
+            int after = FavoriteShards.shardOf(userId, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+        // ~1/5 de los usuarios
+        assertTrue(moved > 1_700 && moved < 2_300, "movidos: " + moved);
+    }
+}
@@ -0,0 +1,174 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.services.ImageCacheService.CachedImage;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Las portadas se sirven desde un servidor local; cada ruta /cover/N devuelve una imagen distinta de 640x900
+class ImageCacheServiceTest {
+
+    private static final AtomicInteger downloads = new AtomicInteger();
+    private static final HttpServer server = startStub();
+
+    @TempDir
+    Path cacheDir;
+
+    private ImageCacheService service;
+
+    @BeforeEach
+    void createService() throws IOException {
+        downloads.set(0);
+        service = newService(DataSize.ofMegabytes(50));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void downloadsOnceAndBuildsFixedSizeThumbnails() throws Exception {
+        String url = cover(1);
+
+        CachedImage original = service.getImage(url, "original");
+        CachedImage small = service.getImage(url, "small");
+        CachedImage smallAgain = service.getImage(url, "small");
+
+        assertEquals(1, downloads.get());
+        assertEquals("image/png", original.contentType());
+        assertEquals("image/jpeg", small.contentType());
+        assertEquals(small.file(), smallAgain.file());
+        assertEquals(small.etag(), smallAgain.etag());
+        assertNotEquals(original.etag(), small.etag());
+
+        BufferedImage thumbnail = ImageIO.read(small.file().toFile());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(225, thumbnail.getHeight());
+    }
+
+    @Test
+    void concurrentRequestsShareOneDownloadAndSurviveARestart() throws Exception {
+        String url = cover(2);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CachedImage>> results = pool.invokeAll(java.util.Collections.nCopies(16, () -> service.getImage(url, "medium")));
+            for (Future<CachedImage> result : results) {
+                assertEquals(320, ImageIO.read(result.get().file().toFile()).getWidth());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, downloads.get());
+
+        // Una instancia nueva encuentra el contenido en disco sin volver a descargarlo
+        ImageCacheService restarted = newService(DataSize.ofMegabytes(50));
+        assertEquals(service.getImage(url, "medium").etag(), restarted.getImage(url, "medium").etag());
+        assertEquals(1, downloads.get());
+        assertEquals(service.getTotalBytes(), restarted.getTotalBytes());
+    }
+
+    @Test
+    void rejectsHostsOutsideTheAllowList() {
+        assertThrows(IllegalArgumentException.class, () -> service.getImage("http://example.com/cover.jpg", "small"));
+        assertThrows(IllegalArgumentException.class, () -> service.getImage("file:///etc/passwd", "original"));
+        assertThrows(IllegalArgumentException.class, () -> service.getImage(cover(1), "huge"));
+        assertEquals(0, downloads.get());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedFilesOverTheLimit() throws Exception {
+        Path oldest = service.getImage(cover(10), "original").file();
+        long imageBytes = Files.size(oldest);
+        Files.setLastModifiedTime(oldest, FileTime.from(Instant.now().minusSeconds(3600)));
+        ImageCacheService small = newService(DataSize.ofBytes(imageBytes * 3 + imageBytes / 2));
+        Path recent = small.getImage(cover(11), "original").file();
+        small.getImage(cover(12), "original");
+        small.getImage(cover(13), "original");
+
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(recent));
+        assertTrue(small.getTotalBytes() <= imageBytes * 3 + imageBytes / 2);
+    }
+
+    @Test
+    void filesServedDuringTheGracePeriodAreNotEvicted() throws Exception {
+        Path stale = service.getImage(cover(20), "original").file();
+        Path served = service.getImage(cover(21), "original").file();
+        long imageBytes = Files.size(stale);
+        // Fechas dentro del intervalo de touch: servir el fichero no las refresca
+        Files.setLastModifiedTime(served, FileTime.from(Instant.now().minusSeconds(300)));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minusSeconds(240)));
+
+        ImageCacheService small = newService(DataSize.ofBytes(imageBytes * 3 + imageBytes / 2));
+        small.getImage(cover(21), "original");
+        small.getImage(cover(22), "original");
+        small.getImage(cover(23), "original");
+
+        assertTrue(Files.exists(served));
+        assertFalse(Files.exists(stale));
+    }
+
+    private ImageCacheService newService(DataSize maxSize) throws IOException {
+        return new ImageCacheService(RestClient.builder(), cacheDir, maxSize, List.of("localhost"));
+    }
+
+    private static String cover(int id) {
+        return "http://localhost:" + server.getAddress().getPort() + "/cover/" + id;
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/cover/", exchange -> {
+                downloads.incrementAndGet();
+                int id = Integer.parseInt(exchange.getRequestURI().getPath().substring("/cover/".length()));
+                byte[] body = png(id);
+                exchange.getResponseHeaders().add("Content-Type", "image/png");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] png(int seed) throws IOException {
+        BufferedImage image = new BufferedImage(640, 900, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * seed) ^ (y * 31) ^ (seed << 16));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
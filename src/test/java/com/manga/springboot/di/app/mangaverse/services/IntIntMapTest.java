@@ -0,0 +1,53 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+
+    // Altas, sumas y borrados al azar comparados con un HashMap: el borrado por desplazamiento no pierde claves
+    @Test
+    void behavesLikeAHashMapUnderRandomUpdates() {
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(reference.getOrDefault(key, 0), map.remove(key));
+                reference.remove(key);
+            } else {
+                int delta = random.nextInt(5) - 2;
+                int expected = reference.getOrDefault(key, 0) + delta;
+                assertEquals(expected, map.addTo(key, delta));
+                if (expected == 0) {
+                    reference.remove(key);
+                } else {
+                    reference.put(key, expected);
+                }
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        reference.forEach((key, value) -> assertEquals(value, map.get(key)));
+        Map<Integer, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(reference, iterated);
+    }
+
+    @Test
+    void entriesThatReachZeroDisappear() {
+        IntIntMap map = new IntIntMap();
+        map.addTo(7, 2);
+        map.addTo(7, -2);
+        assertFalse(map.containsKey(7));
+        assertTrue(map.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(-1, 1));
+    }
+}
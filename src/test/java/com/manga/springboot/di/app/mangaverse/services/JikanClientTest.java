@@ -0,0 +1,97 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JikanClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private JikanClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v4/", exchange -> {
+            hits.incrementAndGet();
+            String path = exchange.getRequestURI().toString();
+            int status = path.contains("missing") ? 404 : 200;
+            byte[] body = ("{\"path\":\"" + path + "\"}").getBytes(StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(path.contains("hung") ? 2_000 : 100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // Cada petición en su hilo: una colgada no retiene a las demás
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/v4";
+        client = new JikanClient(RestClient.builder(), baseUrl, 100, Duration.ofMinutes(1), Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentIdenticalRequestsHitUpstreamOnce() {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> client.get("/top/anime?limit=10")));
+        }
+
+        futures.forEach(f -> assertEquals("{\"path\":\"/v4/top/anime?limit=10\"}", f.join()));
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void cachedResponsesAreSharedAndKeyedByQuery() {
+        client.get("/top/manga?limit=5");
+        client.get("top/manga?limit=5");
+        client.get("/top/manga?limit=20");
+
+        assertEquals(2, hits.get());
+        assertEquals(2, client.getCachedEntries());
+    }
+
+    @Test
+    void failedResponsesAreNotCached() {
+        assertThrows(HttpClientErrorException.NotFound.class, () -> client.get("/anime/missing"));
+        assertThrows(HttpClientErrorException.NotFound.class, () -> client.get("/anime/missing"));
+
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void hungRequestsTimeOutAndAreRetriedByTheNextCaller() {
+        assertThrows(IllegalStateException.class, () -> client.get("/anime/hung"));
+        assertThrows(IllegalStateException.class, () -> client.get("/anime/hung"));
+
+        assertEquals(2, hits.get());
+        assertEquals(0, client.getCachedEntries());
+    }
+}
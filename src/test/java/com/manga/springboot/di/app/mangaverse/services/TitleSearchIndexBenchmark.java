@@ -0,0 +1,87 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogTitleDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Latencia del buscador de títulos con un catálogo sintético (SampleTime da los percentiles p50/p99).
+// mvn -Pbenchmark test-compile exec:exec -Djmh.include=TitleSearchIndexBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TitleSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "shingeki", "kyojin", "naruto", "shippuden", "one", "piece", "boku", "hero", "academia", "kimetsu",
+            "yaiba", "jujutsu", "kaisen", "death", "note", "fullmetal", "alchemist", "brotherhood", "steins", "gate",
+            "hunter", "sword", "art", "online", "tokyo", "ghoul", "mob", "psycho", "spy", "family", "chainsaw", "man",
+            "vinland", "saga", "monster", "berserk", "dragon", "ball", "bleach", "gintama", "haikyuu", "kaguya", "sama",
+            "love", "war", "oshi", "ko", "frieren", "sousou", "no", "the", "of", "season", "movie", "final", "kingdom",
+            "slam", "dunk", "clannad", "after", "story", "made", "in", "abyss", "cowboy", "bebop", "evangelion"};
+
+    @Param("50000")
+    private int titles;
+
+    private TitleSearchIndex index;
+
+    @Setup
+    public void buildIndex() {
+        index = new TitleSearchIndex();
+        index.addAll(syntheticTitles(titles, 42));
+    }
+
+    @Benchmark
+    public List<CatalogTitleDTO> prefixAutocomplete() {
+        return index.search("shingeki no kyo", "anime", 10);
+    }
+
+    @Benchmark
+    public List<CatalogTitleDTO> singleLetterPrefix() {
+        return index.search("k", null, 10);
+    }
+
+    @Benchmark
+    public List<CatalogTitleDTO> typoInWord() {
+        return index.search("fullmetal alchemsit", null, 10);
+    }
+
+    @Benchmark
+    public List<CatalogTitleDTO> commonWords() {
+        return index.search("the final season", "anime", 10);
+    }
+
+    // Títulos de 2 a 5 palabras de un vocabulario realista, con popularidad y nota aleatorias
+    static List<CatalogTitleDTO> syntheticTitles(int count, long seed) {
+        Random random = new Random(seed);
+        List<CatalogTitleDTO> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int words = 2 + random.nextInt(4);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                title.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word).append(' ');
+            }
+            title.append(i);
+            result.add(new CatalogTitleDTO(i % 2 == 0 ? "anime" : "manga", (long) i, title.toString(), "tv", "complete",
+                    5 + random.nextInt(50) / 10.0, 1980 + random.nextInt(45), (long) random.nextInt(3_000_000), null));
+        }
+        return result;
+    }
+}
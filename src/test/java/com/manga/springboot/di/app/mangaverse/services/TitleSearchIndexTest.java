@@ -0,0 +1,87 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.response.CatalogTitleDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleSearchIndexTest {
+
+    private TitleSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new TitleSearchIndex();
+        index.addAll(List.of(
+                title("anime", 1, "Naruto", 8.0, 2_800_000),
+                title("anime", 2, "Naruto: Shippuuden", 8.3, 2_000_000),
+                new CatalogTitleDTO("anime", 3L, "Shingeki no Kyojin", "Attack on Titan", "進撃の巨人\nAoT",
+                        "tv", "complete", 8.5, 2013, 3_900_000L, null),
+                title("anime", 4, "Boruto: Naruto Next Generations", 6.0, 700_000),
+                title("manga", 5, "Naruto", 8.1, 400_000),
+                title("anime", 6, "Kimi no Na wa.", 8.8, 2_700_000),
+                title("manga", 7, "Pokémon Adventures", 7.9, 20_000)));
+    }
+
+    @Test
+    void prefixOfTheLastWordAutocompletes() {
+        assertEquals(List.of(3L), ids(index.search("shingeki no ky", "anime", 10)));
+        assertTrue(ids(index.search("nar", "anime", 10)).containsAll(List.of(1L, 2L, 4L)));
+    }
+
+    @Test
+    void typosStillFindTheTitle() {
+        assertEquals(1L, index.search("narutp", "anime", 10).get(0).getMalId());
+        assertEquals(3L, index.search("shingeki no kyoujin", null, 10).get(0).getMalId());
+    }
+
+    @Test
+    void titlesStartingWithTheQueryRankFirstThenPopularity() {
+        List<Long> ids = ids(index.search("naruto", "anime", 10));
+        assertEquals(List.of(1L, 2L, 4L), ids);
+    }
+
+    @Test
+    void accentsAndPunctuationAreIgnored() {
+        assertEquals(List.of(7L), ids(index.search("pokemon", null, 10)));
+        assertEquals(List.of(6L), ids(index.search("kimi no na wa", null, 10)));
+    }
+
+    @Test
+    void englishAndAlternativeTitlesFindTheSameItem() {
+        assertEquals(List.of(3L), ids(index.search("attack on titan", "anime", 10)));
+        assertEquals(List.of(3L), ids(index.search("attack on tita", null, 10)));
+        assertEquals(3L, index.search("aot", null, 10).get(0).getMalId());
+        assertEquals(List.of(3L), ids(index.search("進撃の巨人", null, 10)));
+        assertEquals("Shingeki no Kyojin", index.search("attack on titan", null, 10).get(0).getTitle());
+    }
+
+    @Test
+    void kindAndLimitAreApplied() {
+        assertEquals(List.of(5L), ids(index.search("naruto", "manga", 10)));
+        assertEquals(2, index.search("naruto", null, 2).size());
+        assertTrue(index.search("   ", null, 10).isEmpty());
+    }
+
+    @Test
+    void updatesReplaceThePreviousVersion() {
+        index.add(title("anime", 1, "Naruto (2002)", 8.0, 2_800_000));
+
+        List<CatalogTitleDTO> results = index.search("naruto 2002", "anime", 10);
+        assertEquals("Naruto (2002)", results.get(0).getTitle());
+        assertEquals(1, results.stream().filter(t -> t.getMalId() == 1L).count());
+        assertEquals(7, index.size());
+        assertEquals(5, index.size("anime"));
+    }
+
+    private static List<Long> ids(List<CatalogTitleDTO> titles) {
+        return titles.stream().map(CatalogTitleDTO::getMalId).toList();
+    }
+
+    private static CatalogTitleDTO title(String kind, long malId, String title, double score, long members) {
+        return new CatalogTitleDTO(kind, malId, title, "tv", "complete", score, 2000, members, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import com.manga.springboot.di.app.mangaverse.dto.request.UserRegistrationDTO;
+import com.manga.springboot.di.app.mangaverse.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Con capacidad para 2 usuarios el filtro arranca con sitio para 4 claves (2 usuarios, el doble de lo esperado)
+@SpringBootTest(properties = "users.availability.expected-users=2")
+class UserAvailabilityServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void growingPastCapacityRebuildsOnceInTheBackground() throws Exception {
+        awaitIdle();
+        long before = availabilityService.getRebuilds();
+
+        // El tercer usuario pasa la capacidad; el filtro nuevo (12 claves) admite hasta el sexto sin reconstruir
+        for (int i = 1; i <= 6; i++) {
+            register("lector" + i);
+        }
+        awaitIdle();
+
+        assertEquals(before + 1, availabilityService.getRebuilds());
+        for (int i = 1; i <= 6; i++) {
+            assertTrue(availabilityService.usernameExists("lector" + i));
+        }
+        assertFalse(availabilityService.usernameExists("lector7"));
+    }
+
+    private void register(String username) {
+        UserRegistrationDTO dto = new UserRegistrationDTO();
+        dto.setUsername(username);
+        dto.setEmail(username + "@test.com");
+        dto.setPassword("Secreto!1");
+        dto.setConfirmPassword("Secreto!1");
+        userService.registerUser(dto);
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (availabilityService.isRebuilding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(availabilityService.isRebuilding());
+    }
+}
@@ -0,0 +1,45 @@
+package com.manga.springboot.di.app.mangaverse.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Validación de contraseñas: el patrón precompilado de UserService frente a Pattern.matches(String, ...),
+// que es como estaba antes y compila la expresión en cada llamada.
+// mvn -Pbenchmark test-compile exec:exec -Djmh.include=UserServiceBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final String REGEX = "^(?=.*[A-Z])(?=.*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?]).+$";
+
+    @Param({"Secreto!2024", "sinmayusculas123"})
+    private String password;
+
+    // isPasswordStrong no usa dependencias, basta con la instancia sin contexto
+    private final UserService userService = new UserService();
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return userService.isPasswordStrong(password);
+    }
+
+    @Benchmark
+    public boolean recompiledPattern() {
+        return Pattern.matches(REGEX, password);
+    }
+}